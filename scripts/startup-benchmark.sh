@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Time to first request of the packaged application in the replica profile, with and without class data sharing
+# and, when CRAC_JAVA points to the java binary of a CRaC enabled JDK, restored from a checkpoint.
+# No database is needed, the replica profile does not connect at startup and the probed endpoint does not query.
+#
+# usage: mvn -Pcds -DskipTests package && scripts/startup-benchmark.sh [runs]
+#        mvn -Pcds,crac -DskipTests package && CRAC_JAVA=/opt/zulu-crac/bin/java scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8090}
+# must be the JDK the archive was built with, that is the one Maven ran on
+JAVA=${JAVA:-java}
+APP_DIR=target/application
+# everything runs from the extracted directory: the archive records the relative class path of the training run
+# and is silently ignored when the jar is found under another path
+cd "$APP_DIR"
+JAR=$(ls order-book-*.jar)
+URL="http://localhost:$PORT/cluster/owner?ticker=SAVE"
+APP_ARGS=(-Dspring.profiles.active=replica -Dserver.port="$PORT")
+
+now_ms() {
+  date +%s%3N
+}
+
+# start the command, wait until the first request is answered and print the elapsed milliseconds
+time_to_first_request() {
+  local start pid
+  start=$(now_ms)
+  "$@" > /dev/null 2>&1 &
+  pid=$!
+  until curl -s -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "the application exited before answering, run it by hand: $*" >&2
+      exit 1
+    fi
+    # polling more often takes noticeable CPU away from the starting JVM on small machines
+    sleep 0.1
+  done
+  echo $(( $(now_ms) - start ))
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+}
+
+measure() {
+  local name=$1
+  shift
+  for _ in $(seq "$RUNS"); do
+    time_to_first_request "$@"
+  done | sort -n | awk -v name="$name" '
+    { times[NR] = $1 }
+    END { printf "%-8s median %6d ms  min %6d ms  max %6d ms  (%d runs)\n", name, times[int((NR + 1) / 2)], times[1], times[NR], NR }'
+}
+
+measure default "$JAVA" "${APP_ARGS[@]}" -jar "$JAR"
+
+if [ -f application.jsa ]; then
+  # -Xshare:on fails the run instead of quietly starting without the archive
+  measure cds "$JAVA" -Xshare:on -XX:SharedArchiveFile=application.jsa "${APP_ARGS[@]}" -jar "$JAR"
+else
+  echo "no class data sharing archive in $APP_DIR, build with -Pcds" >&2
+fi
+
+if [ -n "${CRAC_JAVA:-}" ]; then
+  rm -rf crac
+  # the JVM is stopped once the checkpoint is written
+  "$CRAC_JAVA" -XX:CRaCCheckpointTo=crac -Dspring.context.checkpoint=onRefresh "${APP_ARGS[@]}" -jar "$JAR" > /dev/null 2>&1 || true
+  measure crac "$CRAC_JAVA" -XX:CRaCRestoreFrom=crac
+fi
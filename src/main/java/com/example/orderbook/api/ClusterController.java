@@ -0,0 +1,37 @@
+package com.example.orderbook.api;
+
+import com.example.orderbook.cluster.ClusterNode;
+import com.example.orderbook.cluster.TickerRouter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@Tag(name = "Cluster")
+@RequestMapping("/cluster")
+public class ClusterController {
+
+    TickerRouter tickerRouter;
+
+    public ClusterController(TickerRouter tickerRouter) {
+        this.tickerRouter = tickerRouter;
+    }
+
+    @GetMapping(value = "/owner", produces = "application/json")
+    @Operation(
+            summary = "Get the instance owning a ticker",
+            description = "Clients sending binary orders use this to send every order straight to its owner.",
+            parameters = @Parameter(name = "ticker", description = "The ticker symbol", example = "SAVE"))
+    public ResponseEntity<ClusterNode> getOwner(@RequestParam String ticker) {
+        ClusterNode owner = tickerRouter.ownerOf(ticker).orElse(new ClusterNode(tickerRouter.localNodeId(), ""));
+        return new ResponseEntity<>(owner, HttpStatus.OK);
+    }
+}
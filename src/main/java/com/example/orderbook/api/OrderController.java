@@ -1,12 +1,22 @@
 package com.example.orderbook.api;
 
 import com.example.orderbook.api.exceptionhandling.OrderNotFoundException;
+import com.example.orderbook.api.exceptionhandling.OrderValidationException;
+import com.example.orderbook.api.exceptionhandling.RateLimitExceededException;
+import com.example.orderbook.cluster.ClusterForwarder;
+import com.example.orderbook.cluster.ClusterNode;
+import com.example.orderbook.cluster.TickerRouter;
+import com.example.orderbook.ratelimit.RateLimiter;
 import com.example.orderbook.service.OrderService;
+import com.example.orderbook.service.entity.OrderAmendment;
+import com.example.orderbook.service.entity.OrderBookResponse;
 import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderListResponse;
 import com.example.orderbook.service.entity.SummaryResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -14,6 +24,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -22,20 +33,91 @@ import java.util.Optional;
 @RequestMapping("/order")
 public class OrderController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String API_KEY_HEADER = "X-API-Key";
+
     OrderService orderService;
+    TickerRouter tickerRouter;
+    ClusterForwarder clusterForwarder;
+    RateLimiter rateLimiter;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, TickerRouter tickerRouter, ClusterForwarder clusterForwarder, RateLimiter rateLimiter) {
         this.orderService = orderService;
+        this.tickerRouter = tickerRouter;
+        this.clusterForwarder = clusterForwarder;
+        this.rateLimiter = rateLimiter;
     }
 
     @PostMapping(produces = "application/json")
     @Operation(summary = "Create a new order", description = "Add a new order to the order book.")
-    public ResponseEntity<OrderEntity> createOrder(@RequestBody @Valid OrderEntity order) {
+    public ResponseEntity<OrderEntity> createOrder(
+            @RequestBody OrderEntity order,
+            @Parameter(description = "Retries with the same key return the original order instead of creating a new one")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Parameter(description = "Orders are rate limited per API key if it is a configured one, otherwise per client address")
+            @RequestHeader(value = API_KEY_HEADER, required = false) String apiKey,
+            @Parameter(hidden = true)
+            @RequestHeader(value = ClusterForwarder.FORWARDED_HEADER, required = false) String forwardedBy,
+            HttpServletRequest request) {
+        Map<String, String> errors = OrderValidator.validate(order);
+        if (!errors.isEmpty()) {
+            log.error("Invalid order: {}", errors);
+            throw new OrderValidationException(errors);
+        }
+        if (idempotencyKey != null && (idempotencyKey.isEmpty() || idempotencyKey.length() > 64)) {
+            log.error("Invalid idempotency key: {}", idempotencyKey);
+            throw new OrderValidationException(Map.of(IDEMPOTENCY_KEY_HEADER, "Idempotency key must be between 1 and 64 characters"));
+        }
+        Optional<ClusterNode> owner = forwardedBy == null ? tickerRouter.remoteOwnerOf(order.getTicker()) : Optional.empty();
+        try {
+            if (forwardedBy != null) {
+                // forwarded orders were already counted against the client by the instance the client sent them to,
+                // the ForwardedRequestInterceptor only lets the header through from cluster members
+                rateLimiter.admitTicker(order.getTicker());
+            } else if (owner.isPresent()) {
+                // the owner limits the ticker
+                rateLimiter.admitClient(rateLimiter.clientKey(apiKey, request.getRemoteAddr()));
+            } else {
+                rateLimiter.admit(rateLimiter.clientKey(apiKey, request.getRemoteAddr()), order.getTicker());
+            }
+        } catch (RateLimitExceededException e) {
+            // a retry of an order that was already saved is answered with it instead of being throttled
+            Optional<OrderEntity> previousOrder = idempotencyKey != null ? orderService.findByIdempotencyKey(idempotencyKey) : Optional.empty();
+            if (previousOrder.isEmpty()) {
+                throw e;
+            }
+            return new ResponseEntity<>(previousOrder.get(), HttpStatus.CREATED);
+        }
+        if (owner.isPresent()) {
+            return new ResponseEntity<>(clusterForwarder.forwardOrder(owner.get(), order, idempotencyKey), HttpStatus.CREATED);
+        }
         log.info("Creating {} order for {}. Volume: {} Price: {} Currency: {}", order.getOrderSide(), order.getTicker(), order.getVolume(), order.getPrice(), order.getCurrency());
-        OrderEntity savedOrder = orderService.saveNewOrder(order);
+        OrderEntity savedOrder = orderService.saveNewOrder(order, idempotencyKey);
         return new ResponseEntity<>(savedOrder, HttpStatus.CREATED);
     }
 
+    @GetMapping(produces = "application/json")
+    @Operation(
+            summary = "List the orders of a ticker",
+            description = "Retrieve the orders of a ticker between two dates in (date, id) order, one page at a time. Every field is returned as an array with one element per order.",
+            parameters = {
+                    @Parameter(name = "ticker", description = "The ticker symbol", example = "SAVE"),
+                    @Parameter(name = "from", description = "First date to list", example = "2024-11-10"),
+                    @Parameter(name = "to", description = "Last date to list, defaults to the first date", example = "2024-11-12"),
+                    @Parameter(name = "cursor", description = "The nextCursor of the previous page, leave out for the first page"),
+                    @Parameter(name = "limit", description = "Maximum number of orders per page", example = "1000")
+            })
+    public ResponseEntity<OrderListResponse> listOrders(
+            @RequestParam String ticker,
+            @RequestParam LocalDate from,
+            @RequestParam(required = false) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "1000") int limit) {
+        // orders are read from the shared database, so any instance can answer without forwarding
+        OrderListResponse page = orderService.listOrders(ticker, from, to != null ? to : from, cursor, limit);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
     @GetMapping(value = "/{id}", produces = "application/json")
     @Operation(summary = "Get order by ID", description = "Retrieve the details of an order by its ID.")
     public ResponseEntity<OrderEntity> getOrder(
@@ -51,17 +133,95 @@ public class OrderController {
         }
     }
 
+    @DeleteMapping(value = "/{id}", produces = "application/json")
+    @Operation(summary = "Cancel an order", description = "Cancel an order of the current day, it no longer counts toward the summary.")
+    public ResponseEntity<OrderEntity> cancelOrder(
+            @Parameter(required = true)
+            @PathVariable Long id,
+            @Parameter(hidden = true)
+            @RequestHeader(value = ClusterForwarder.FORWARDED_HEADER, required = false) String forwardedBy) {
+        Optional<ClusterNode> owner = remoteOwnerOfOrder(id, forwardedBy);
+        if (owner.isPresent()) {
+            return new ResponseEntity<>(clusterForwarder.forwardCancel(owner.get(), id), HttpStatus.OK);
+        }
+        log.info("Cancelling order with ID: {}", id);
+        return new ResponseEntity<>(orderService.cancelOrder(id), HttpStatus.OK);
+    }
+
+    @PatchMapping(value = "/{id}", produces = "application/json")
+    @Operation(summary = "Amend an order", description = "Change the volume and/or price of an active order of the current day.")
+    public ResponseEntity<OrderEntity> amendOrder(
+            @Parameter(required = true)
+            @PathVariable Long id,
+            @RequestBody OrderAmendment amendment,
+            @Parameter(hidden = true)
+            @RequestHeader(value = ClusterForwarder.FORWARDED_HEADER, required = false) String forwardedBy) {
+        Map<String, String> errors = OrderValidator.validate(amendment);
+        if (!errors.isEmpty()) {
+            log.error("Invalid amendment: {}", errors);
+            throw new OrderValidationException(errors);
+        }
+        Optional<ClusterNode> owner = remoteOwnerOfOrder(id, forwardedBy);
+        if (owner.isPresent()) {
+            return new ResponseEntity<>(clusterForwarder.forwardAmend(owner.get(), id, amendment), HttpStatus.OK);
+        }
+        log.info("Amending order with ID: {}. Volume: {} Price: {}", id, amendment.getVolume(), amendment.getPrice());
+        return new ResponseEntity<>(orderService.amendOrder(id, amendment), HttpStatus.OK);
+    }
+
+    /**
+     * Cancellations and amendments change the aggregates of the order's ticker, so they go to the ticker's owner
+     */
+    private Optional<ClusterNode> remoteOwnerOfOrder(Long id, String forwardedBy) {
+        if (forwardedBy != null || !tickerRouter.isEnabled()) {
+            return Optional.empty();
+        }
+        return orderService.getOrderById(id).flatMap(order -> tickerRouter.remoteOwnerOf(order.getTicker()));
+    }
+
+    @GetMapping(value = "/book", produces = "application/json")
+    @Operation(
+            summary = "Get the order book for a given ticker",
+            description = "Retrieve the best bid and ask price levels of the current day with the aggregated volume per level.",
+            parameters = {
+                    @Parameter(name = "ticker", description = "The ticker symbol", example = "SAVE"),
+                    @Parameter(name = "depth", description = "Number of price levels per side", example = "10"),
+                    @Parameter(name = "currency", description = "Currency of the book, required when the ticker is traded in several currencies", example = "SEK")
+            })
+    public ResponseEntity<OrderBookResponse> getOrderBook(
+            @RequestParam String ticker,
+            @RequestParam(defaultValue = "10") int depth,
+            @RequestParam(required = false) String currency,
+            @Parameter(hidden = true)
+            @RequestHeader(value = ClusterForwarder.FORWARDED_HEADER, required = false) String forwardedBy) {
+        Optional<ClusterNode> owner = forwardedBy == null ? tickerRouter.remoteOwnerOf(ticker) : Optional.empty();
+        if (owner.isPresent()) {
+            return new ResponseEntity<>(clusterForwarder.forwardBook(owner.get(), ticker, depth, currency), HttpStatus.OK);
+        }
+        return new ResponseEntity<>(orderService.getOrderBook(ticker, currency, depth), HttpStatus.OK);
+    }
+
     @GetMapping(value = "/summary", produces = "application/json")
     @Operation(
             summary = "Get order summary for a given ticker",
             description = "Retrieve the summary of a ticker for a given date.",
             parameters = {
                     @Parameter(name = "ticker", description = "The ticker symbol", example = "SAVE"),
-                    @Parameter(name = "date", description = "The date for the order summary", example = "2024-11-10")
+                    @Parameter(name = "date", description = "The date for the order summary", example = "2024-11-10"),
+                    @Parameter(name = "currency", description = "Optional currency to convert all prices into", example = "SEK")
             })
-    public ResponseEntity<SummaryResponse> getSummary(@RequestParam String ticker, @RequestParam LocalDate date) {
-        log.info("Getting summary for ticker: {} on date: {}", ticker, date);
-        SummaryResponse summary = orderService.getSummary(ticker, date);
+    public ResponseEntity<SummaryResponse> getSummary(
+            @RequestParam String ticker,
+            @RequestParam LocalDate date,
+            @RequestParam(required = false) String currency,
+            @Parameter(hidden = true)
+            @RequestHeader(value = ClusterForwarder.FORWARDED_HEADER, required = false) String forwardedBy) {
+        log.info("Getting summary for ticker: {} on date: {} in currency: {}", ticker, date, currency);
+        Optional<ClusterNode> owner = forwardedBy == null ? tickerRouter.remoteOwnerOf(ticker) : Optional.empty();
+        if (owner.isPresent()) {
+            return new ResponseEntity<>(clusterForwarder.forwardSummary(owner.get(), ticker, date, currency), HttpStatus.OK);
+        }
+        SummaryResponse summary = orderService.getSummary(ticker, date, currency);
         return new ResponseEntity<>(summary, HttpStatus.OK);
     }
 }
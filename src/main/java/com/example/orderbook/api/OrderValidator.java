@@ -0,0 +1,94 @@
+package com.example.orderbook.api;
+
+import com.example.orderbook.service.entity.OrderAmendment;
+import com.example.orderbook.service.entity.OrderEntity;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Validates incoming orders with plain checks instead of reflective bean validation
+ * A valid order is answered with a shared empty map, so the happy path does not allocate
+ */
+public final class OrderValidator {
+
+    private OrderValidator() {
+    }
+
+    /**
+     * Validate the fields a client has to provide
+     *
+     * @param order the object sent in from client
+     * @return the error message per invalid field, empty when the order is valid
+     */
+    public static Map<String, String> validate(OrderEntity order) {
+        Map<String, String> errors = null;
+
+        String ticker = order.getTicker();
+        if (ticker == null) {
+            errors = addError(errors, "ticker", "An order must contain a ticker");
+        } else if (ticker.isEmpty() || ticker.length() > 4) {
+            errors = addError(errors, "ticker", "Ticker must be between 1 and 4 characters");
+        }
+
+        if (order.getOrderSide() == null) {
+            errors = addError(errors, "orderSide", "Order side must be either BUY or SELL");
+        }
+
+        Long volume = order.getVolume();
+        if (volume == null) {
+            errors = addError(errors, "volume", "An order must specify volume");
+        } else if (volume <= 0) {
+            errors = addError(errors, "volume", "Volume must be positive");
+        }
+
+        Double price = order.getPrice();
+        if (price == null) {
+            errors = addError(errors, "price", "An order must contain price information");
+        } else if (price < 0) {
+            errors = addError(errors, "price", "Price must be greater than or equal to 0");
+        }
+
+        String currency = order.getCurrency();
+        if (currency == null) {
+            errors = addError(errors, "currency", "An order must contain currency");
+        } else if (currency.isEmpty() || currency.length() > 3) {
+            errors = addError(errors, "currency", "Currency must be between 1 and 3 characters");
+        }
+
+        return errors == null ? Collections.emptyMap() : errors;
+    }
+
+    /**
+     * Validate the fields of an amendment, at least one of them has to be present
+     *
+     * @param amendment the object sent in from client
+     * @return the error message per invalid field, empty when the amendment is valid
+     */
+    public static Map<String, String> validate(OrderAmendment amendment) {
+        Map<String, String> errors = null;
+
+        Long volume = amendment.getVolume();
+        Double price = amendment.getPrice();
+        if (volume == null && price == null) {
+            errors = addError(errors, "amendment", "An amendment must change volume or price");
+        }
+        if (volume != null && volume <= 0) {
+            errors = addError(errors, "volume", "Volume must be positive");
+        }
+        if (price != null && price < 0) {
+            errors = addError(errors, "price", "Price must be greater than or equal to 0");
+        }
+
+        return errors == null ? Collections.emptyMap() : errors;
+    }
+
+    private static Map<String, String> addError(Map<String, String> errors, String field, String message) {
+        if (errors == null) {
+            errors = new HashMap<>();
+        }
+        errors.put(field, message);
+        return errors;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.orderbook.api;
+
+import com.example.orderbook.cluster.ClusterForwarder;
+import com.example.orderbook.cluster.ClusterNode;
+import com.example.orderbook.cluster.TickerRouter;
+import com.example.orderbook.service.entity.ScreeningDecision;
+import com.example.orderbook.service.entity.ScreeningEntity;
+import com.example.orderbook.service.screening.ScreeningService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RestController
+@Tag(name = "Screening")
+@RequestMapping("/screening")
+public class ScreeningController {
+
+    ScreeningService screeningService;
+    TickerRouter tickerRouter;
+    ClusterForwarder clusterForwarder;
+
+    public ScreeningController(ScreeningService screeningService, TickerRouter tickerRouter, ClusterForwarder clusterForwarder) {
+        this.screeningService = screeningService;
+        this.tickerRouter = tickerRouter;
+        this.clusterForwarder = clusterForwarder;
+    }
+
+    @GetMapping(produces = "application/json")
+    @Operation(
+            summary = "List orders waiting for screening",
+            description = "Retrieve the orders rejected as suspicious deviations that have not been approved or rejected yet, oldest first.",
+            parameters = {
+                    @Parameter(name = "limit", description = "Maximum number of orders", example = "100")
+            })
+    public ResponseEntity<List<ScreeningEntity>> getPending(@RequestParam(defaultValue = "100") int limit) {
+        return new ResponseEntity<>(screeningService.getPending(limit), HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/approve", produces = "application/json")
+    @Operation(summary = "Approve screened orders", description = "Add the given pending orders to the order book on the day they were placed. Returns the orders that were approved.")
+    public ResponseEntity<List<ScreeningEntity>> approve(
+            @RequestBody ScreeningDecision decision,
+            @Parameter(hidden = true)
+            @RequestHeader(value = ClusterForwarder.FORWARDED_HEADER, required = false) String forwardedBy) {
+        log.info("Approving screened orders: {}", decision.getIds());
+        if (forwardedBy != null || !tickerRouter.isEnabled()) {
+            return new ResponseEntity<>(screeningService.approve(decision.getIds()), HttpStatus.OK);
+        }
+        // an approved order of the current day changes the aggregates and the book held by the ticker's owner
+        Map<Optional<ClusterNode>, List<Long>> idsByOwner = screeningService.getAll(decision.getIds()).stream()
+                .collect(Collectors.groupingBy(
+                        screening -> screening.getDate().equals(LocalDate.now()) ? tickerRouter.remoteOwnerOf(screening.getTicker()) : Optional.empty(),
+                        Collectors.mapping(ScreeningEntity::getId, Collectors.toList())));
+        List<ScreeningEntity> approved = new ArrayList<>();
+        idsByOwner.forEach((owner, ids) -> approved.addAll(owner.isPresent()
+                ? clusterForwarder.forwardApprove(owner.get(), ids)
+                : screeningService.approve(ids)));
+        return new ResponseEntity<>(approved, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/reject", produces = "application/json")
+    @Operation(summary = "Reject screened orders", description = "Discard the given pending orders. Returns the orders that were rejected.")
+    public ResponseEntity<List<ScreeningEntity>> reject(@RequestBody ScreeningDecision decision) {
+        log.info("Rejecting screened orders: {}", decision.getIds());
+        return new ResponseEntity<>(screeningService.reject(decision.getIds()), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.orderbook.api.binary;
+
+import com.example.orderbook.api.OrderController;
+import com.example.orderbook.api.exceptionhandling.InvalidFrameException;
+import com.example.orderbook.api.exceptionhandling.SuspiciousDeviationException;
+import com.example.orderbook.cluster.TickerRouter;
+import com.example.orderbook.ratelimit.RateLimiter;
+import com.example.orderbook.service.OrderService;
+import com.example.orderbook.service.entity.OrderEntity;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.ByteBuffer;
+
+@Slf4j
+@RestController
+@Tag(name = "Order")
+@RequestMapping("/order")
+public class BinaryOrderController {
+
+    OrderService orderService;
+    TickerRouter tickerRouter;
+    RateLimiter rateLimiter;
+
+    public BinaryOrderController(OrderService orderService, TickerRouter tickerRouter, RateLimiter rateLimiter) {
+        this.orderService = orderService;
+        this.tickerRouter = tickerRouter;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @PostMapping(value = "/binary", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE, produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Create orders from binary frames", description = "Add a batch of fixed layout binary orders to the order book. Every order gets its own result frame.")
+    public ResponseEntity<byte[]> createOrders(
+            @RequestBody byte[] body,
+            @Parameter(description = "Orders are rate limited per API key if it is a configured one, otherwise per client address")
+            @RequestHeader(value = OrderController.API_KEY_HEADER, required = false) String apiKey,
+            HttpServletRequest httpRequest) {
+        if (body.length == 0 || body.length % OrderFlyweight.LENGTH != 0) {
+            log.error("Binary order request of {} bytes is not a whole number of frames", body.length);
+            throw new InvalidFrameException("The request must contain one or more " + OrderFlyweight.LENGTH + " byte order frames");
+        }
+
+        int count = body.length / OrderFlyweight.LENGTH;
+        ByteBuffer request = ByteBuffer.wrap(body);
+        ByteBuffer response = ByteBuffer.allocate(count * OrderFlyweight.RESULT_LENGTH);
+        OrderFlyweight order = new OrderFlyweight();
+        String clientKey = rateLimiter.clientKey(apiKey, httpRequest.getRemoteAddr());
+
+        for (int i = 0; i < count; i++) {
+            order.wrap(request, i * OrderFlyweight.LENGTH);
+            if (!order.isValid()) {
+                writeResult(response, 0, 0, OrderFlyweight.INVALID);
+                continue;
+            }
+            OrderEntity orderEntity = order.toEntity();
+            if (tickerRouter.remoteOwnerOf(orderEntity.getTicker()).isPresent()) {
+                writeResult(response, 0, 0, OrderFlyweight.NOT_OWNER);
+                continue;
+            }
+            // every frame is an order, so a batch takes as many permits as it has frames
+            if (rateLimiter.acquire(clientKey, orderEntity.getTicker()) > 0) {
+                writeResult(response, 0, 0, OrderFlyweight.RATE_LIMITED);
+                continue;
+            }
+            try {
+                OrderEntity savedOrder = orderService.saveNewOrder(orderEntity);
+                writeResult(response, savedOrder.getId(), savedOrder.getDate().toEpochDay(), OrderFlyweight.ACCEPTED);
+            } catch (SuspiciousDeviationException e) {
+                writeResult(response, 0, 0, OrderFlyweight.SUSPICIOUS_DEVIATION);
+            } catch (RuntimeException e) {
+                // the frames saved before this one stay saved, so the batch is still answered frame by frame
+                log.error("Could not save binary {} order for {}", orderEntity.getOrderSide(), orderEntity.getTicker(), e);
+                writeResult(response, 0, 0, OrderFlyweight.FAILED);
+            }
+        }
+
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(response.array());
+    }
+
+    private static void writeResult(ByteBuffer response, long id, long epochDay, byte status) {
+        response.putLong(id);
+        response.putInt((int) epochDay);
+        response.put(status);
+        // reserved
+        response.position(response.position() + 3);
+    }
+}
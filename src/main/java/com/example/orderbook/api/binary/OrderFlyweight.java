@@ -0,0 +1,153 @@
+package com.example.orderbook.api.binary;
+
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads one fixed layout order frame in place, so a single instance can be reused for a whole batch
+ * <p>
+ * Frame layout, big endian, {@value #LENGTH} bytes:
+ * <pre>
+ * offset  size  field
+ *  0      4     ticker, ASCII, padded with zero bytes
+ *  4      1     order side, 0 = BUY, 1 = SELL
+ *  5      3     currency, ASCII, padded with zero bytes
+ *  8      8     volume
+ * 16      8     price
+ * </pre>
+ * Every frame is answered with a {@value #RESULT_LENGTH} byte result: the order id, the order date
+ * as epoch day, a status byte and three reserved bytes. In cluster mode frames for tickers owned by
+ * another instance are answered with {@link #NOT_OWNER}, clients look the owner up with GET /cluster/owner.
+ * Frames over the client's or the ticker's rate limit are answered with {@link #RATE_LIMITED}.
+ * Frames that fail for any other reason, such as the database being unavailable, are answered with {@link #FAILED}
+ * without affecting the other frames of the batch.
+ */
+public class OrderFlyweight {
+
+    public static final int LENGTH = 24;
+    public static final int RESULT_LENGTH = 16;
+
+    public static final byte BUY = 0;
+    public static final byte SELL = 1;
+
+    public static final byte ACCEPTED = 0;
+    public static final byte INVALID = 1;
+    public static final byte SUSPICIOUS_DEVIATION = 2;
+    public static final byte NOT_OWNER = 3;
+    public static final byte RATE_LIMITED = 4;
+    public static final byte FAILED = 5;
+
+    private static final int TICKER_OFFSET = 0;
+    private static final int TICKER_LENGTH = 4;
+    private static final int SIDE_OFFSET = 4;
+    private static final int CURRENCY_OFFSET = 5;
+    private static final int CURRENCY_LENGTH = 3;
+    private static final int VOLUME_OFFSET = 8;
+    private static final int PRICE_OFFSET = 16;
+
+    private final byte[] scratch = new byte[TICKER_LENGTH];
+    private ByteBuffer buffer;
+    private int offset;
+
+    public OrderFlyweight wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+
+    public byte orderSide() {
+        return buffer.get(offset + SIDE_OFFSET);
+    }
+
+    public long volume() {
+        return buffer.getLong(offset + VOLUME_OFFSET);
+    }
+
+    public double price() {
+        return buffer.getDouble(offset + PRICE_OFFSET);
+    }
+
+    public String ticker() {
+        return text(TICKER_OFFSET, TICKER_LENGTH);
+    }
+
+    public String currency() {
+        return text(CURRENCY_OFFSET, CURRENCY_LENGTH);
+    }
+
+    /**
+     * Same rules as the JSON order request, checked on the raw bytes
+     */
+    public boolean isValid() {
+        byte side = orderSide();
+        double price = price();
+        return textLength(TICKER_OFFSET, TICKER_LENGTH) > 0
+                && textLength(CURRENCY_OFFSET, CURRENCY_LENGTH) > 0
+                && (side == BUY || side == SELL)
+                && volume() > 0
+                // NaN fails the comparison, infinity has to be ruled out explicitly
+                && Double.isFinite(price) && price >= 0;
+    }
+
+    public OrderEntity toEntity() {
+        return OrderEntity.builder()
+                .ticker(ticker())
+                .orderSide(orderSide() == BUY ? OrderSide.BUY : OrderSide.SELL)
+                .volume(volume())
+                .price(price())
+                .currency(currency())
+                .build();
+    }
+
+    /**
+     * Length of a zero padded text field, or -1 if it holds anything but printable ASCII followed by padding
+     */
+    private int textLength(int fieldOffset, int fieldLength) {
+        int length = 0;
+        while (length < fieldLength) {
+            byte b = buffer.get(offset + fieldOffset + length);
+            if (b == 0) {
+                break;
+            }
+            if (b < 0x21 || b > 0x7E) {
+                return -1;
+            }
+            length++;
+        }
+        for (int i = length; i < fieldLength; i++) {
+            if (buffer.get(offset + fieldOffset + i) != 0) {
+                return -1;
+            }
+        }
+        return length;
+    }
+
+    private String text(int fieldOffset, int fieldLength) {
+        int length = Math.max(textLength(fieldOffset, fieldLength), 0);
+        for (int i = 0; i < length; i++) {
+            scratch[i] = buffer.get(offset + fieldOffset + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Write an order frame, used by clients and tests
+     */
+    public static void encode(ByteBuffer buffer, String ticker, byte orderSide, long volume, double price, String currency) {
+        putText(buffer, ticker, TICKER_LENGTH);
+        buffer.put(orderSide);
+        putText(buffer, currency, CURRENCY_LENGTH);
+        buffer.putLong(volume);
+        buffer.putDouble(price);
+    }
+
+    private static void putText(ByteBuffer buffer, String value, int fieldLength) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < fieldLength; i++) {
+            buffer.put(i < bytes.length ? bytes[i] : 0);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.orderbook.api.exceptionhandling;
+
+import lombok.Getter;
+
+@Getter
+public class ForwardedRequestException extends RuntimeException {
+    private final int status;
+    private final byte[] body;
+
+    public ForwardedRequestException(int status, byte[] body) {
+        super("The owning instance answered with status " + status);
+        this.status = status;
+        this.body = body;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.orderbook.api.exceptionhandling;
+
+public class InvalidFrameException extends RuntimeException {
+    public InvalidFrameException(String message) {
+        super(message);
+    }
+}
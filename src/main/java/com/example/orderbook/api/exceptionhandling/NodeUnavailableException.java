@@ -0,0 +1,7 @@
+package com.example.orderbook.api.exceptionhandling;
+
+public class NodeUnavailableException extends RuntimeException {
+    public NodeUnavailableException(String message) {
+        super(message);
+    }
+}
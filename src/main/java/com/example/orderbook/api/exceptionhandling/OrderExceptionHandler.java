@@ -5,12 +5,11 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
-import org.springframework.validation.FieldError;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -21,25 +20,17 @@ import java.util.Map;
 @ControllerAdvice
 public class OrderExceptionHandler {
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
+    @ExceptionHandler(OrderValidationException.class)
     @ApiResponses(value = {
             @ApiResponse(responseCode = "400", description = "Invalid input",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public ResponseEntity<Map<String, String>> handleValidationExceptions(MethodArgumentNotValidException exception) {
-        Map<String, String> errors = new HashMap<>();
-        for (FieldError error : exception.getBindingResult().getFieldErrors()) {
-            if ("orderSide".equals(error.getField())) {
-                errors.put(error.getField(), "Order side must be either BUY or SELL");
-            } else {
-                errors.put(error.getField(), error.getDefaultMessage());
-            }
-        }
+    public ResponseEntity<Map<String, String>> handleValidationExceptions(OrderValidationException exception) {
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(errors);
+                .body(exception.getErrors());
     }
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
@@ -115,4 +106,129 @@ public class OrderExceptionHandler {
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(errorResponse);
     }
+
+    @ExceptionHandler(InvalidFrameException.class)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "400", description = "The binary request was not made of whole order frames",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<ErrorResponse> handleInvalidFrameException(InvalidFrameException exception) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status("ERROR")
+                .message(exception.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(UnsupportedCurrencyException.class)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "400", description = "Prices could not be converted into the requested currency",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<ErrorResponse> handleUnsupportedCurrencyException(UnsupportedCurrencyException exception) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status("ERROR")
+                .message(exception.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(OrderNotAmendableException.class)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "409", description = "The order is cancelled or belongs to a closed day",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<ErrorResponse> handleOrderNotAmendableException(OrderNotAmendableException exception) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status("ERROR")
+                .message(exception.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "429", description = "The client or ticker sent more orders than its rate limit allows",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(RateLimitExceededException exception) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status("ERROR")
+                .message(exception.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(ForwardedRequestException.class)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "4XX", description = "The error returned by the instance owning the ticker, passed on unchanged",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "5XX", description = "The error returned by the instance owning the ticker, passed on unchanged",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<byte[]> handleForwardedRequestException(ForwardedRequestException exception) {
+        return ResponseEntity
+                .status(exception.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(exception.getBody());
+    }
+
+    @ExceptionHandler(UntrustedForwarderException.class)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "403", description = "The request claims to be forwarded but does not come from a cluster member",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<ErrorResponse> handleUntrustedForwarderException(UntrustedForwarderException exception) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status("ERROR")
+                .message(exception.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(NodeUnavailableException.class)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "503", description = "The instance owning the ticker could not be reached",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<ErrorResponse> handleNodeUnavailableException(NodeUnavailableException exception) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status("ERROR")
+                .message(exception.getMessage())
+                .timestamp(LocalDateTime.now())
+                .build();
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.orderbook.api.exceptionhandling;
+
+public class OrderNotAmendableException extends RuntimeException {
+    public OrderNotAmendableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.orderbook.api.exceptionhandling;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+public class OrderValidationException extends RuntimeException {
+    private final Map<String, String> errors;
+
+    public OrderValidationException(Map<String, String> errors) {
+        super("The order is invalid");
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.orderbook.api.exceptionhandling;
+
+public class UnsupportedCurrencyException extends RuntimeException {
+    public UnsupportedCurrencyException(String message) {
+        super(message);
+    }
+}
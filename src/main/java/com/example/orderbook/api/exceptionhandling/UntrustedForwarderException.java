@@ -0,0 +1,7 @@
+package com.example.orderbook.api.exceptionhandling;
+
+public class UntrustedForwarderException extends RuntimeException {
+    public UntrustedForwarderException(String message) {
+        super(message);
+    }
+}
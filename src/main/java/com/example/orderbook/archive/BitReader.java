@@ -0,0 +1,37 @@
+package com.example.orderbook.archive;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads values written by {@link BitWriter}
+ */
+class BitReader {
+
+    private final ByteBuffer buffer;
+    private int current;
+    private int bitsLeft;
+
+    BitReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    boolean readBit() {
+        return readBits(1) == 1;
+    }
+
+    long readBits(int bits) {
+        long value = 0;
+        while (bits > 0) {
+            if (bitsLeft == 0) {
+                current = buffer.get() & 0xFF;
+                bitsLeft = 8;
+            }
+            int take = Math.min(bitsLeft, bits);
+            int chunk = (current >>> (bitsLeft - take)) & ((1 << take) - 1);
+            value = (value << take) | chunk;
+            bitsLeft -= take;
+            bits -= take;
+        }
+        return value;
+    }
+}
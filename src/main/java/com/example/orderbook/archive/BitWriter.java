@@ -0,0 +1,41 @@
+package com.example.orderbook.archive;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Writes values of arbitrary bit width, most significant bit first
+ */
+class BitWriter {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private int current;
+    private int bitCount;
+
+    void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    void writeBits(long value, int bits) {
+        while (bits > 0) {
+            int take = Math.min(8 - bitCount, bits);
+            int chunk = (int) ((value >>> (bits - take)) & ((1L << take) - 1));
+            current = (current << take) | chunk;
+            bitCount += take;
+            bits -= take;
+            if (bitCount == 8) {
+                out.write(current);
+                current = 0;
+                bitCount = 0;
+            }
+        }
+    }
+
+    byte[] toByteArray() {
+        if (bitCount > 0) {
+            out.write(current << (8 - bitCount));
+            current = 0;
+            bitCount = 0;
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.orderbook.archive;
+
+import com.example.orderbook.archive.ColumnarArchiveWriter.BlockMetadata;
+import com.example.orderbook.service.entity.DailySummaryEntity;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import com.example.orderbook.service.entity.OrderStatus;
+import com.example.orderbook.service.entity.SummaryResponse;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.orderbook.archive.ColumnarArchiveWriter.*;
+
+/**
+ * Answers summary and listing queries straight from a columnar archive file without touching the database
+ * <p>
+ * Blocks are memory mapped on demand. Blocks whose date range or ticker set cannot match
+ * the query are skipped using the statistics in the footer, summaries only decode the date, ticker,
+ * order side and price columns of the remaining blocks.
+ */
+public class ColumnarArchiveReader implements Closeable {
+
+    private static final int TRAILER_LENGTH = 12;
+
+    private final FileChannel channel;
+    private final String[] tickers;
+    private final String[] sides;
+    private final String[] currencies;
+    private final List<BlockMetadata> blocks;
+    private final int largestBlock;
+    private final long[] days;
+
+    private ColumnarArchiveReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < 8 + TRAILER_LENGTH) {
+            throw new IOException("The file is not a columnar order archive");
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, 8);
+        ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - TRAILER_LENGTH, TRAILER_LENGTH);
+        long footerOffset = trailer.getLong();
+        if (header.getInt() != MAGIC || trailer.getInt() != MAGIC) {
+            throw new IOException("The file is not a columnar order archive");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported columnar order archive version " + version);
+        }
+
+        ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, footerOffset, size - TRAILER_LENGTH - footerOffset);
+        tickers = readDictionary(footer);
+        sides = readDictionary(footer);
+        currencies = readDictionary(footer);
+
+        int blockCount = (int) Encoding.readVarLong(footer);
+        blocks = new ArrayList<>(blockCount);
+        int largest = 0;
+        for (int i = 0; i < blockCount; i++) {
+            long offset = footer.getLong();
+            int length = footer.getInt();
+            int rows = footer.getInt();
+            long minDate = footer.getLong();
+            long maxDate = footer.getLong();
+            double minPrice = footer.getDouble();
+            double maxPrice = footer.getDouble();
+            long[] blockTickers = new long[(int) Encoding.readVarLong(footer)];
+            for (int word = 0; word < blockTickers.length; word++) {
+                blockTickers[word] = footer.getLong();
+            }
+            blocks.add(new BlockMetadata(offset, length, rows, minDate, maxDate, minPrice, maxPrice, blockTickers));
+            largest = Math.max(largest, rows);
+        }
+        largestBlock = largest;
+
+        days = new long[(int) Encoding.readVarLong(footer)];
+        long day = 0;
+        for (int i = 0; i < days.length; i++) {
+            day += Encoding.unZigZag(Encoding.readVarLong(footer));
+            days[i] = day;
+        }
+    }
+
+    public static ColumnarArchiveReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new ColumnarArchiveReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long rowCount() {
+        return blocks.stream().mapToLong(BlockMetadata::rows).sum();
+    }
+
+    public List<String> tickers() {
+        return Arrays.asList(tickers);
+    }
+
+    public List<String> currencies() {
+        return Arrays.asList(currencies);
+    }
+
+    /**
+     * Whether the archive holds the orders of a day, read from the footer
+     */
+    public boolean contains(LocalDate date) {
+        return Arrays.binarySearch(days, date.toEpochDay()) >= 0;
+    }
+
+    /**
+     * Every order in the archive in (date, id) order
+     */
+    public void forEach(OrderConsumer consumer) throws IOException {
+        for (BlockMetadata block : blocks) {
+            readOrders(block, -1, order -> {
+                consumer.accept(order);
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Orders of a ticker up to and including a date that come after the given (date, id) position, in (date, id) order,
+     * the archived counterpart of the order listing query
+     *
+     * @param limit maximum number of orders to return
+     */
+    public List<OrderEntity> findPage(String ticker, LocalDate afterDate, long afterId, LocalDate to, int limit) throws IOException {
+        List<OrderEntity> page = new ArrayList<>();
+        int tickerCode = Arrays.asList(tickers).indexOf(ticker);
+        if (tickerCode < 0 || limit <= 0) {
+            return page;
+        }
+        long after = afterDate.toEpochDay();
+        long last = to.toEpochDay();
+        for (BlockMetadata block : blocks) {
+            if (block.maxDate() < after || block.minDate() > last || !containsTicker(block, tickerCode)) {
+                continue;
+            }
+            boolean more = readOrders(block, tickerCode, order -> {
+                long day = order.getDate().toEpochDay();
+                if (day > last) {
+                    return false;
+                }
+                if (day > after || (day == after && order.getId() > afterId)) {
+                    page.add(order);
+                }
+                return page.size() < limit;
+            });
+            if (!more) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Calculate the same summary as the order service for a ticker and date
+     *
+     * @param ticker the stock to calculate a summary for
+     * @param date   defines the scope of the summary
+     * @return SummaryResponse, or empty when the archive holds no orders for the ticker on that date
+     */
+    public Optional<SummaryResponse> summarize(String ticker, LocalDate date) throws IOException {
+        int tickerCode = Arrays.asList(tickers).indexOf(ticker);
+        if (tickerCode < 0) {
+            return Optional.empty();
+        }
+        long epochDay = date.toEpochDay();
+
+        long[] counts = new long[sides.length];
+        double[] mins = new double[sides.length];
+        double[] maxs = new double[sides.length];
+        double[] sums = new double[sides.length];
+        Arrays.fill(mins, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        double[] prices = new double[largestBlock];
+
+        for (BlockMetadata block : blocks) {
+            if (epochDay < block.minDate() || epochDay > block.maxDate() || !containsTicker(block, tickerCode)) {
+                continue;
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, block.offset(), block.length());
+            int rows = buffer.getInt();
+            ByteBuffer[] columns = columns(buffer);
+            ByteBuffer dateColumn = columns[DATE_COLUMN];
+            ByteBuffer tickerColumn = columns[TICKER_COLUMN];
+            ByteBuffer sideColumn = columns[SIDE_COLUMN];
+            Encoding.readDoubles(columns[PRICE_COLUMN], prices, rows);
+
+            long currentDate = 0;
+            for (int i = 0; i < rows; i++) {
+                currentDate += Encoding.unZigZag(Encoding.readVarLong(dateColumn));
+                int rowTicker = (int) Encoding.readVarLong(tickerColumn);
+                int side = (int) Encoding.readVarLong(sideColumn);
+                if (currentDate == epochDay && rowTicker == tickerCode) {
+                    counts[side]++;
+                    mins[side] = Math.min(mins[side], prices[i]);
+                    maxs[side] = Math.max(maxs[side], prices[i]);
+                    sums[side] += prices[i];
+                }
+            }
+        }
+
+        List<DailySummaryEntity> dailySummaries = new ArrayList<>();
+        for (int side = 0; side < sides.length; side++) {
+            if (counts[side] > 0) {
+                dailySummaries.add(new DailySummaryEntity(ticker, OrderSide.valueOf(sides[side]), date, counts[side], mins[side], maxs[side], sums[side]));
+            }
+        }
+        if (dailySummaries.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(SummaryResponse.fromDailySummaries(ticker, date, dailySummaries));
+    }
+
+    /**
+     * Decode the orders of a block, all of them or only those of one ticker
+     *
+     * @param tickerCode the ticker to decode the orders of, -1 for every ticker
+     * @return false when the visitor stopped early
+     */
+    private boolean readOrders(BlockMetadata block, int tickerCode, OrderVisitor visitor) throws IOException {
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, block.offset(), block.length());
+        int rows = buffer.getInt();
+        ByteBuffer[] columns = columns(buffer);
+        double[] prices = new double[rows];
+        Encoding.readDoubles(columns[PRICE_COLUMN], prices, rows);
+
+        long date = 0;
+        long id = 0;
+        for (int i = 0; i < rows; i++) {
+            date += Encoding.unZigZag(Encoding.readVarLong(columns[DATE_COLUMN]));
+            id += Encoding.unZigZag(Encoding.readVarLong(columns[ID_COLUMN]));
+            int rowTicker = (int) Encoding.readVarLong(columns[TICKER_COLUMN]);
+            int side = (int) Encoding.readVarLong(columns[SIDE_COLUMN]);
+            int currency = (int) Encoding.readVarLong(columns[CURRENCY_COLUMN]);
+            long volume = Encoding.readVarLong(columns[VOLUME_COLUMN]);
+            if (tickerCode >= 0 && rowTicker != tickerCode) {
+                continue;
+            }
+            OrderEntity order = OrderEntity.builder()
+                    .id(id)
+                    .date(LocalDate.ofEpochDay(date))
+                    .ticker(tickers[rowTicker])
+                    .orderSide(OrderSide.valueOf(sides[side]))
+                    .volume(volume)
+                    .price(prices[i])
+                    .currency(currencies[currency])
+                    // only active orders are archived
+                    .status(OrderStatus.ACTIVE)
+                    .build();
+            if (!visitor.visit(order)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsTicker(BlockMetadata block, int tickerCode) {
+        int word = tickerCode >>> 6;
+        return word < block.tickers().length && (block.tickers()[word] & (1L << tickerCode)) != 0;
+    }
+
+    private static ByteBuffer[] columns(ByteBuffer block) {
+        int[] lengths = new int[COLUMN_COUNT];
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            lengths[column] = block.getInt();
+        }
+        ByteBuffer[] columns = new ByteBuffer[COLUMN_COUNT];
+        int offset = block.position();
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            columns[column] = block.slice(offset, lengths[column]);
+            offset += lengths[column];
+        }
+        return columns;
+    }
+
+    private static String[] readDictionary(ByteBuffer footer) {
+        String[] values = new String[(int) Encoding.readVarLong(footer)];
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = new byte[(int) Encoding.readVarLong(footer)];
+            footer.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @FunctionalInterface
+    public interface OrderConsumer {
+        void accept(OrderEntity order) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface OrderVisitor {
+        boolean visit(OrderEntity order) throws IOException;
+    }
+}
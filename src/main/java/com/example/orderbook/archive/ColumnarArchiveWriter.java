@@ -0,0 +1,222 @@
+package com.example.orderbook.archive;
+
+import com.example.orderbook.service.entity.OrderEntity;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Writes orders to the columnar archive format
+ * <p>
+ * Orders are grouped into blocks. Inside a block every field is stored as its own column:
+ * dates and ids are delta encoded, ticker, currency and order side are dictionary encoded
+ * and prices are Gorilla compressed. The footer holds the dictionaries, the min/max
+ * statistics of every block, which lets {@link ColumnarArchiveReader} skip blocks entirely,
+ * and the days the file holds. Append orders sorted by date and id, for the best compression
+ * and because readers rely on that order.
+ */
+public class ColumnarArchiveWriter implements Closeable {
+
+    static final int MAGIC = 0x4F424341; // "OBCA"
+    static final int VERSION = 2;
+    static final int DEFAULT_BLOCK_SIZE = 8192;
+    static final int COLUMN_COUNT = 7;
+    static final int DATE_COLUMN = 0;
+    static final int ID_COLUMN = 1;
+    static final int TICKER_COLUMN = 2;
+    static final int SIDE_COLUMN = 3;
+    static final int CURRENCY_COLUMN = 4;
+    static final int VOLUME_COLUMN = 5;
+    static final int PRICE_COLUMN = 6;
+
+    private final DataOutputStream out;
+    private final int blockSize;
+    private final Map<String, Integer> tickers = new LinkedHashMap<>();
+    private final Map<String, Integer> currencies = new LinkedHashMap<>();
+    private final Map<String, Integer> sides = new LinkedHashMap<>();
+    private final List<BlockMetadata> blocks = new ArrayList<>();
+    private final SortedSet<Long> days = new TreeSet<>();
+
+    private final long[] dates;
+    private final long[] ids;
+    private final int[] tickerCodes;
+    private final int[] sideCodes;
+    private final int[] currencyCodes;
+    private final long[] volumes;
+    private final double[] prices;
+    private int rows;
+    private long position;
+
+    public ColumnarArchiveWriter(Path path) throws IOException {
+        this(path, DEFAULT_BLOCK_SIZE);
+    }
+
+    public ColumnarArchiveWriter(Path path, int blockSize) throws IOException {
+        this(Files.newOutputStream(path), blockSize);
+    }
+
+    ColumnarArchiveWriter(OutputStream outputStream, int blockSize) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(outputStream, 1 << 16));
+        this.blockSize = blockSize;
+        this.dates = new long[blockSize];
+        this.ids = new long[blockSize];
+        this.tickerCodes = new int[blockSize];
+        this.sideCodes = new int[blockSize];
+        this.currencyCodes = new int[blockSize];
+        this.volumes = new long[blockSize];
+        this.prices = new double[blockSize];
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        position = 8;
+    }
+
+    public void append(OrderEntity order) throws IOException {
+        long epochDay = order.getDate().toEpochDay();
+        if (rows == 0 || dates[rows - 1] != epochDay) {
+            days.add(epochDay);
+        }
+        dates[rows] = epochDay;
+        ids[rows] = order.getId();
+        tickerCodes[rows] = tickers.computeIfAbsent(order.getTicker(), key -> tickers.size());
+        sideCodes[rows] = sides.computeIfAbsent(order.getOrderSide().name(), key -> sides.size());
+        currencyCodes[rows] = currencies.computeIfAbsent(order.getCurrency(), key -> currencies.size());
+        volumes[rows] = order.getVolume();
+        prices[rows] = order.getPrice();
+        rows++;
+        if (rows == blockSize) {
+            flushBlock();
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        byte[][] columns = new byte[COLUMN_COUNT][];
+        columns[DATE_COLUMN] = deltaEncode(dates);
+        columns[ID_COLUMN] = deltaEncode(ids);
+        columns[TICKER_COLUMN] = codeEncode(tickerCodes);
+        columns[SIDE_COLUMN] = codeEncode(sideCodes);
+        columns[CURRENCY_COLUMN] = codeEncode(currencyCodes);
+        columns[VOLUME_COLUMN] = varLongEncode(volumes);
+        columns[PRICE_COLUMN] = Encoding.writeDoubles(prices, rows);
+
+        long minDate = Long.MAX_VALUE;
+        long maxDate = Long.MIN_VALUE;
+        double minPrice = Double.POSITIVE_INFINITY;
+        double maxPrice = Double.NEGATIVE_INFINITY;
+        BitSet tickersPresent = new BitSet();
+        for (int i = 0; i < rows; i++) {
+            minDate = Math.min(minDate, dates[i]);
+            maxDate = Math.max(maxDate, dates[i]);
+            minPrice = Math.min(minPrice, prices[i]);
+            maxPrice = Math.max(maxPrice, prices[i]);
+            tickersPresent.set(tickerCodes[i]);
+        }
+
+        long offset = position;
+        out.writeInt(rows);
+        for (byte[] column : columns) {
+            out.writeInt(column.length);
+        }
+        int length = 4 + 4 * COLUMN_COUNT;
+        for (byte[] column : columns) {
+            out.write(column);
+            length += column.length;
+        }
+        position += length;
+
+        blocks.add(new BlockMetadata(offset, length, rows, minDate, maxDate, minPrice, maxPrice, tickersPresent.toLongArray()));
+        rows = 0;
+    }
+
+    private byte[] deltaEncode(long[] values) {
+        ByteArrayOutputStream column = new ByteArrayOutputStream();
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            Encoding.writeVarLong(column, Encoding.zigZag(values[i] - previous));
+            previous = values[i];
+        }
+        return column.toByteArray();
+    }
+
+    private byte[] codeEncode(int[] codes) {
+        ByteArrayOutputStream column = new ByteArrayOutputStream();
+        for (int i = 0; i < rows; i++) {
+            Encoding.writeVarLong(column, codes[i]);
+        }
+        return column.toByteArray();
+    }
+
+    private byte[] varLongEncode(long[] values) {
+        ByteArrayOutputStream column = new ByteArrayOutputStream();
+        for (int i = 0; i < rows; i++) {
+            Encoding.writeVarLong(column, values[i]);
+        }
+        return column.toByteArray();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushBlock();
+
+        ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+        DataOutputStream footer = new DataOutputStream(footerBytes);
+        writeDictionary(footer, footerBytes, tickers);
+        writeDictionary(footer, footerBytes, sides);
+        writeDictionary(footer, footerBytes, currencies);
+        Encoding.writeVarLong(footerBytes, blocks.size());
+        for (BlockMetadata block : blocks) {
+            footer.writeLong(block.offset());
+            footer.writeInt(block.length());
+            footer.writeInt(block.rows());
+            footer.writeLong(block.minDate());
+            footer.writeLong(block.maxDate());
+            footer.writeDouble(block.minPrice());
+            footer.writeDouble(block.maxPrice());
+            Encoding.writeVarLong(footerBytes, block.tickers().length);
+            for (long word : block.tickers()) {
+                footer.writeLong(word);
+            }
+        }
+        Encoding.writeVarLong(footerBytes, days.size());
+        long previousDay = 0;
+        for (long day : days) {
+            Encoding.writeVarLong(footerBytes, Encoding.zigZag(day - previousDay));
+            previousDay = day;
+        }
+
+        out.write(footerBytes.toByteArray());
+        out.writeLong(position);
+        out.writeInt(MAGIC);
+        out.close();
+    }
+
+    private static void writeDictionary(DataOutputStream footer, ByteArrayOutputStream footerBytes, Map<String, Integer> dictionary) throws IOException {
+        Encoding.writeVarLong(footerBytes, dictionary.size());
+        for (String value : dictionary.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            Encoding.writeVarLong(footerBytes, bytes.length);
+            footer.write(bytes);
+        }
+    }
+
+    record BlockMetadata(long offset, int length, int rows, long minDate, long maxDate,
+                         double minPrice, double maxPrice, long[] tickers) {
+    }
+}
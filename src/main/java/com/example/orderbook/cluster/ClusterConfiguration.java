@@ -0,0 +1,17 @@
+package com.example.orderbook.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ClusterProperties.class)
+public class ClusterConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(ClusterMembership.class)
+    public ClusterMembership staticClusterMembership(ClusterProperties clusterProperties) {
+        return new StaticClusterMembership(clusterProperties.getNodes());
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.orderbook.cluster;
+
+import com.example.orderbook.api.OrderController;
+import com.example.orderbook.api.exceptionhandling.ForwardedRequestException;
+import com.example.orderbook.api.exceptionhandling.NodeUnavailableException;
+import com.example.orderbook.service.entity.OrderAmendment;
+import com.example.orderbook.service.entity.OrderBookResponse;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.ScreeningDecision;
+import com.example.orderbook.service.entity.ScreeningEntity;
+import com.example.orderbook.service.entity.SummaryResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.ClientHttpRequestFactories;
+import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Sends requests for tickers owned by another instance to that instance
+ * Forwarded requests carry {@value #FORWARDED_HEADER}, the receiving instance always handles them itself
+ * so a request is forwarded at most once, even while two instances disagree about the membership
+ */
+@Slf4j
+@Component
+public class ClusterForwarder {
+
+    public static final String FORWARDED_HEADER = "X-Order-Book-Forwarded-By";
+
+    private final RestClient restClient;
+    private final ClusterProperties clusterProperties;
+
+    @Autowired
+    public ClusterForwarder(RestClient.Builder restClientBuilder, ClusterProperties clusterProperties) {
+        this(restClientBuilder
+                .requestFactory(ClientHttpRequestFactories.get(ClientHttpRequestFactorySettings.DEFAULTS
+                        .withConnectTimeout(clusterProperties.getConnectTimeout())
+                        .withReadTimeout(clusterProperties.getReadTimeout())))
+                .build(), clusterProperties);
+    }
+
+    ClusterForwarder(RestClient restClient, ClusterProperties clusterProperties) {
+        this.restClient = restClient;
+        this.clusterProperties = clusterProperties;
+    }
+
+    public OrderEntity forwardOrder(ClusterNode owner, OrderEntity order, String idempotencyKey) {
+        log.info("Forwarding {} order for {} to {}", order.getOrderSide(), order.getTicker(), owner.id());
+        return exchange(owner, () -> restClient.post()
+                .uri(owner.url() + "/order")
+                .header(FORWARDED_HEADER, clusterProperties.getNodeId())
+                .headers(headers -> {
+                    if (idempotencyKey != null) {
+                        headers.set(OrderController.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+                    }
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(order)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ClusterForwarder::rethrow)
+                .body(OrderEntity.class));
+    }
+
+    public OrderEntity forwardCancel(ClusterNode owner, Long id) {
+        log.info("Forwarding cancellation of order {} to {}", id, owner.id());
+        return exchange(owner, () -> restClient.delete()
+                .uri(owner.url() + "/order/{id}", id)
+                .header(FORWARDED_HEADER, clusterProperties.getNodeId())
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ClusterForwarder::rethrow)
+                .body(OrderEntity.class));
+    }
+
+    public OrderEntity forwardAmend(ClusterNode owner, Long id, OrderAmendment amendment) {
+        log.info("Forwarding amendment of order {} to {}", id, owner.id());
+        return exchange(owner, () -> restClient.patch()
+                .uri(owner.url() + "/order/{id}", id)
+                .header(FORWARDED_HEADER, clusterProperties.getNodeId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(amendment)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ClusterForwarder::rethrow)
+                .body(OrderEntity.class));
+    }
+
+    public SummaryResponse forwardSummary(ClusterNode owner, String ticker, LocalDate date, String currency) {
+        log.info("Forwarding summary for {} on {} to {}", ticker, date, owner.id());
+        return exchange(owner, () -> restClient.get()
+                .uri(owner.url() + "/order/summary", uriBuilder -> uriBuilder
+                        .queryParam("ticker", ticker)
+                        .queryParam("date", date)
+                        .queryParamIfPresent("currency", Optional.ofNullable(currency))
+                        .build())
+                .header(FORWARDED_HEADER, clusterProperties.getNodeId())
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ClusterForwarder::rethrow)
+                .body(SummaryResponse.class));
+    }
+
+    public OrderBookResponse forwardBook(ClusterNode owner, String ticker, int depth, String currency) {
+        log.info("Forwarding order book for {} to {}", ticker, owner.id());
+        return exchange(owner, () -> restClient.get()
+                .uri(owner.url() + "/order/book", uriBuilder -> uriBuilder
+                        .queryParam("ticker", ticker)
+                        .queryParam("depth", depth)
+                        .queryParamIfPresent("currency", Optional.ofNullable(currency))
+                        .build())
+                .header(FORWARDED_HEADER, clusterProperties.getNodeId())
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ClusterForwarder::rethrow)
+                .body(OrderBookResponse.class));
+    }
+
+    public List<ScreeningEntity> forwardApprove(ClusterNode owner, List<Long> ids) {
+        log.info("Forwarding approval of screened orders {} to {}", ids, owner.id());
+        return exchange(owner, () -> restClient.post()
+                .uri(owner.url() + "/screening/approve")
+                .header(FORWARDED_HEADER, clusterProperties.getNodeId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ScreeningDecision(ids))
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ClusterForwarder::rethrow)
+                .body(new ParameterizedTypeReference<List<ScreeningEntity>>() {}));
+    }
+
+    private static <T> T exchange(ClusterNode owner, Supplier<T> request) {
+        try {
+            return request.get();
+        } catch (RestClientException e) {
+            // not reachable, timed out or an answer that could not be read
+            log.error("Cluster node {} at {} could not be reached", owner.id(), owner.url(), e);
+            throw new NodeUnavailableException("The instance owning the ticker is unavailable");
+        }
+    }
+
+    private static void rethrow(HttpRequest request, ClientHttpResponse response) throws IOException {
+        if (response.getStatusCode().is5xxServerError()) {
+            log.error("Forwarded request {} {} failed with status {}", request.getMethod(), request.getURI(), response.getStatusCode().value());
+            throw new NodeUnavailableException("The instance owning the ticker is unavailable");
+        }
+        // hand the owner's rejection of the request to the client unchanged
+        throw new ForwardedRequestException(response.getStatusCode().value(), response.getBody().readAllBytes());
+    }
+}
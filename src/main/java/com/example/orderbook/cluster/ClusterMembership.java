@@ -0,0 +1,18 @@
+package com.example.orderbook.cluster;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Source of the current cluster members
+ * Implement this interface as a bean to plug in service discovery instead of the static configuration
+ */
+public interface ClusterMembership {
+
+    List<ClusterNode> members();
+
+    /**
+     * Register a listener that receives the complete member list every time it changes
+     */
+    void onChange(Consumer<List<ClusterNode>> listener);
+}
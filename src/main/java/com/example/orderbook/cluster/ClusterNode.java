@@ -0,0 +1,10 @@
+package com.example.orderbook.cluster;
+
+/**
+ * An order book instance taking part in the cluster
+ *
+ * @param id  unique name of the instance
+ * @param url base url other instances forward requests to, e.g. http://localhost:8081
+ */
+public record ClusterNode(String id, String url) {
+}
@@ -0,0 +1,33 @@
+package com.example.orderbook.cluster;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "orderbook.cluster")
+public class ClusterProperties {
+    private boolean enabled = false;
+    /**
+     * Without cluster mode, whether this is the only instance writing orders to the database
+     * Only then can it keep the current day in memory, replicas sharing the database turn it off
+     */
+    private boolean standalone = true;
+    private String nodeId = "local";
+    private int virtualNodes = 128;
+    private List<ClusterNode> nodes = new ArrayList<>();
+    /**
+     * How long a forwarded request waits for the owning instance, an owner that does not answer in time is unavailable
+     */
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration readTimeout = Duration.ofSeconds(5);
+    /**
+     * How often the hosts of the members are resolved again to check where forwarded requests come from
+     */
+    private Duration addressRefresh = Duration.ofMinutes(5);
+}
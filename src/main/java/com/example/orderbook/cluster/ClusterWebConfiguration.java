@@ -0,0 +1,20 @@
+package com.example.orderbook.cluster;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class ClusterWebConfiguration implements WebMvcConfigurer {
+
+    private final TickerRouter tickerRouter;
+
+    public ClusterWebConfiguration(TickerRouter tickerRouter) {
+        this.tickerRouter = tickerRouter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ForwardedRequestInterceptor(tickerRouter));
+    }
+}
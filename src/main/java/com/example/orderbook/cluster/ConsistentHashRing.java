@@ -0,0 +1,75 @@
+package com.example.orderbook.cluster;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent hash ring assigning tickers to cluster nodes
+ * <p>
+ * Every node is placed on the ring at a number of virtual points. A ticker belongs to the node owning
+ * the first point at or after the hash of the ticker. When a node joins or leaves, only the tickers
+ * between its points and their neighbours change owner.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final ClusterNode[] owners;
+
+    public ConsistentHashRing(List<ClusterNode> nodes, int virtualNodes) {
+        // sorted by id so every instance resolves hash collisions the same way
+        List<ClusterNode> sortedNodes = new ArrayList<>(nodes);
+        sortedNodes.sort(Comparator.comparing(ClusterNode::id));
+
+        TreeMap<Long, ClusterNode> ring = new TreeMap<>();
+        for (ClusterNode node : sortedNodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(hash(node.id() + "#" + i), node);
+            }
+        }
+
+        points = new long[ring.size()];
+        owners = new ClusterNode[ring.size()];
+        int index = 0;
+        for (Map.Entry<Long, ClusterNode> point : ring.entrySet()) {
+            points[index] = point.getKey();
+            owners[index] = point.getValue();
+            index++;
+        }
+    }
+
+    public boolean isEmpty() {
+        return points.length == 0;
+    }
+
+    public ClusterNode ownerOf(String ticker) {
+        if (points.length == 0) {
+            throw new IllegalStateException("The cluster has no members");
+        }
+        int index = Arrays.binarySearch(points, hash(ticker));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * 64 bit FNV-1a followed by the MurmurHash3 finalizer to spread short keys such as tickers over the ring
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.orderbook.cluster;
+
+import com.example.orderbook.api.exceptionhandling.UntrustedForwarderException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Rejects requests that carry {@value ClusterForwarder#FORWARDED_HEADER} without coming from another cluster member
+ * A forwarded request is handled locally even when this instance does not own the ticker,
+ * so accepting the header from anyone would let clients write around the ticker's owner
+ */
+@Slf4j
+public class ForwardedRequestInterceptor implements HandlerInterceptor {
+
+    private final TickerRouter tickerRouter;
+
+    public ForwardedRequestInterceptor(TickerRouter tickerRouter) {
+        this.tickerRouter = tickerRouter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String forwardedBy = request.getHeader(ClusterForwarder.FORWARDED_HEADER);
+        if (forwardedBy != null && !tickerRouter.isTrustedForwarder(forwardedBy, request.getRemoteAddr())) {
+            log.error("Rejected request forwarded by {} from {}", forwardedBy, request.getRemoteAddr());
+            throw new UntrustedForwarderException("Forwarded requests are only accepted from cluster members");
+        }
+        return true;
+    }
+}
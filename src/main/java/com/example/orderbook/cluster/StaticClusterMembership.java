@@ -0,0 +1,26 @@
+package com.example.orderbook.cluster;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Members taken from the orderbook.cluster.nodes configuration, they never change while running
+ */
+public class StaticClusterMembership implements ClusterMembership {
+
+    private final List<ClusterNode> members;
+
+    public StaticClusterMembership(List<ClusterNode> members) {
+        this.members = List.copyOf(members);
+    }
+
+    @Override
+    public List<ClusterNode> members() {
+        return members;
+    }
+
+    @Override
+    public void onChange(Consumer<List<ClusterNode>> listener) {
+        // static members never change
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.orderbook.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Decides which cluster node owns a ticker, the ring is rebuilt whenever the membership changes
+ */
+@Slf4j
+@Component
+public class TickerRouter {
+
+    private final ClusterProperties clusterProperties;
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    private volatile List<ClusterNode> members;
+    private volatile ConsistentHashRing ring;
+    private volatile Map<String, Set<InetAddress>> memberAddresses = Map.of();
+
+    public TickerRouter(ClusterProperties clusterProperties, ClusterMembership clusterMembership) {
+        this.clusterProperties = clusterProperties;
+        this.members = List.copyOf(clusterMembership.members());
+        this.ring = new ConsistentHashRing(members, clusterProperties.getVirtualNodes());
+        resolveMemberAddresses();
+        clusterMembership.onChange(members -> {
+            this.members = List.copyOf(members);
+            ring = new ConsistentHashRing(members, clusterProperties.getVirtualNodes());
+            log.info("Cluster membership changed, {} nodes", members.size());
+            resolveMemberAddresses();
+            changeListeners.forEach(Runnable::run);
+        });
+    }
+
+    /**
+     * Register a listener that runs after the ring was rebuilt, tickers may have a new owner then
+     */
+    public void onOwnershipChange(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    public boolean isEnabled() {
+        return clusterProperties.isEnabled() && !ring.isEmpty();
+    }
+
+    public String localNodeId() {
+        return clusterProperties.getNodeId();
+    }
+
+    /**
+     * @return the owning node when it is another instance, empty when this instance owns the ticker or the cluster is disabled
+     */
+    public Optional<ClusterNode> remoteOwnerOf(String ticker) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        ClusterNode owner = ring.ownerOf(ticker);
+        return owner.id().equals(clusterProperties.getNodeId()) ? Optional.empty() : Optional.of(owner);
+    }
+
+    /**
+     * Whether every change to the ticker goes through this instance, so state kept in memory stays correct:
+     * the tickers this instance owns in cluster mode, every ticker on a standalone instance
+     */
+    public boolean seesEveryChangeTo(String ticker) {
+        return isEnabled() ? remoteOwnerOf(ticker).isEmpty() : clusterProperties.isStandalone();
+    }
+
+    /**
+     * Whether this instance runs the jobs that must only run once for the shared database
+     * Without cluster mode every instance is its own leader, turn the jobs off per instance instead
+     */
+    public boolean isLeader() {
+        if (!isEnabled()) {
+            return true;
+        }
+        return members.stream()
+                .map(ClusterNode::id)
+                .min(Comparator.naturalOrder())
+                .map(id -> id.equals(clusterProperties.getNodeId()))
+                .orElse(true);
+    }
+
+    /**
+     * A forwarded request is only trusted when it names another member and comes from that member's host
+     * The hosts are resolved when the membership changes and every {@code orderbook.cluster.address-refresh}, not per request
+     *
+     * @param nodeId        the node id the request claims to be forwarded by
+     * @param remoteAddress the address the request came from
+     */
+    public boolean isTrustedForwarder(String nodeId, String remoteAddress) {
+        if (!isEnabled() || nodeId.equals(clusterProperties.getNodeId())) {
+            return false;
+        }
+        Set<InetAddress> addresses = memberAddresses.get(nodeId);
+        if (addresses == null) {
+            return false;
+        }
+        try {
+            // the servlet container reports the remote address as a literal, so this does not query DNS
+            return addresses.contains(InetAddress.getByName(remoteAddress));
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Resolve the hosts of the members again, so a member that moved to another address is trusted there
+     */
+    @Scheduled(fixedDelayString = "${orderbook.cluster.address-refresh:PT5M}", initialDelayString = "${orderbook.cluster.address-refresh:PT5M}")
+    public void resolveMemberAddresses() {
+        if (!clusterProperties.isEnabled()) {
+            return;
+        }
+        Map<String, Set<InetAddress>> resolved = new HashMap<>();
+        for (ClusterNode member : members) {
+            try {
+                String host = URI.create(member.url()).getHost();
+                if (host != null) {
+                    resolved.put(member.id(), Set.copyOf(Arrays.asList(InetAddress.getAllByName(host))));
+                }
+            } catch (UnknownHostException | IllegalArgumentException e) {
+                log.error("Could not resolve the address of cluster node {} at {}", member.id(), member.url());
+                // keep trusting the last known addresses until the host resolves again
+                Set<InetAddress> known = memberAddresses.get(member.id());
+                if (known != null) {
+                    resolved.put(member.id(), known);
+                }
+            }
+        }
+        memberAddresses = Map.copyOf(resolved);
+    }
+
+    public Optional<ClusterNode> ownerOf(String ticker) {
+        return isEnabled() ? Optional.of(ring.ownerOf(ticker)) : Optional.empty();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.orderbook.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generic cell rate algorithm, a token bucket that only stores one number per key
+ * <p>
+ * The state is the theoretical arrival time (TAT): the time at which the bucket is full again.
+ * A request is admitted when pushing the TAT one emission interval further keeps it within
+ * burst emission intervals of now. The TAT is updated with a compare-and-set, so admission never locks,
+ * and a bucket with a TAT in the past is indistinguishable from a new one.
+ */
+final class GcraLimit {
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+
+    /**
+     * @param ratePerSecond sustained number of requests per second
+     * @param burst         number of requests admitted at once after being idle
+     */
+    GcraLimit(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("A rate limit needs a positive rate and a burst of at least 1");
+        }
+        this.emissionIntervalNanos = Math.max(1, Math.round(1_000_000_000 / ratePerSecond));
+        this.toleranceNanos = emissionIntervalNanos * burst;
+    }
+
+    /**
+     * @param theoreticalArrival the state of the bucket
+     * @param nowNanos           the current time on the same monotonic clock as the state
+     * @return 0 when the request is admitted, otherwise the nanoseconds until it would be
+     */
+    long acquire(AtomicLong theoreticalArrival, long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long wait = next - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Give back a permit taken with {@link #acquire}, when the request was rejected by another limit after all
+     */
+    void release(AtomicLong theoreticalArrival) {
+        theoreticalArrival.addAndGet(-emissionIntervalNanos);
+    }
+
+    static boolean isIdle(AtomicLong theoreticalArrival, long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
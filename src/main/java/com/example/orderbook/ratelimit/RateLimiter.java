@@ -0,0 +1,211 @@
+package com.example.orderbook.ratelimit;
+
+import com.example.orderbook.api.exceptionhandling.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for order ingest, one {@link GcraLimit} bucket per client and optionally one per ticker
+ * <p>
+ * Clients are identified by their API key only when it is one of the configured keys, anything else is limited
+ * by the client address, so inventing a new key per request does not get a fresh bucket.
+ * Buckets of idle keys are full and carry no information, they are removed by a periodic sweep so memory only
+ * follows the number of recently active keys. Once there are max-keys buckets, idle ones are swept right away
+ * and new keys only share one overflow bucket while every bucket is in use.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    static final String OVERFLOW_KEY = "";
+    private static final long FULL_SWEEP_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final GcraLimit clientLimit;
+    private final GcraLimit tickerLimit;
+    private final int maxKeys;
+    private final Set<String> apiKeys;
+    private final AtomicLong lastFullSweep = new AtomicLong(-FULL_SWEEP_INTERVAL);
+    private final long origin = System.nanoTime();
+    private final Map<String, AtomicLong> clients = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> tickers = new ConcurrentHashMap<>();
+    private final Counter clientsAdmitted;
+    private final Counter clientsRejected;
+    private final Counter tickersAdmitted;
+    private final Counter tickersRejected;
+
+    public RateLimiter(@Value("${orderbook.rate-limit.enabled:false}") boolean enabled,
+                       @Value("${orderbook.rate-limit.client.rate:100}") double clientRate,
+                       @Value("${orderbook.rate-limit.client.burst:200}") int clientBurst,
+                       @Value("${orderbook.rate-limit.ticker.rate:0}") double tickerRate,
+                       @Value("${orderbook.rate-limit.ticker.burst:0}") int tickerBurst,
+                       @Value("${orderbook.rate-limit.max-keys:100000}") int maxKeys,
+                       @Value("${orderbook.rate-limit.api-keys:}") Set<String> apiKeys,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.clientLimit = new GcraLimit(clientRate, clientBurst);
+        // a rate of 0 turns the per-ticker limit off
+        this.tickerLimit = tickerRate > 0 ? new GcraLimit(tickerRate, tickerBurst) : null;
+        this.maxKeys = maxKeys;
+        this.apiKeys = Set.copyOf(apiKeys);
+
+        clientsAdmitted = requests(meterRegistry, "client", "admitted");
+        clientsRejected = requests(meterRegistry, "client", "rejected");
+        tickersAdmitted = requests(meterRegistry, "ticker", "admitted");
+        tickersRejected = requests(meterRegistry, "ticker", "rejected");
+        Gauge.builder("orderbook.rate_limit.keys", clients, Map::size).tag("scope", "client").register(meterRegistry);
+        Gauge.builder("orderbook.rate_limit.keys", tickers, Map::size).tag("scope", "ticker").register(meterRegistry);
+    }
+
+    /**
+     * @param apiKey        the API key sent by the client, may be null
+     * @param remoteAddress the address the request came from
+     * @return the key the client is limited by, its API key if that is a configured one and otherwise its address
+     */
+    public String clientKey(String apiKey, String remoteAddress) {
+        // prefixed, so a key cannot collide with an address
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : remoteAddress;
+    }
+
+    /**
+     * @param clientKey the key returned by {@link #clientKey(String, String)}
+     * @return 0 when the request is admitted, otherwise the nanoseconds until it would be
+     */
+    public long acquireClient(String clientKey) {
+        if (!enabled) {
+            return 0;
+        }
+        return acquire(clients, clientLimit, clientKey, clientsAdmitted, clientsRejected);
+    }
+
+    /**
+     * @return 0 when an order for the ticker is admitted, otherwise the nanoseconds until it would be
+     */
+    public long acquireTicker(String ticker) {
+        if (!enabled || tickerLimit == null) {
+            return 0;
+        }
+        return acquire(tickers, tickerLimit, ticker, tickersAdmitted, tickersRejected);
+    }
+
+    /**
+     * Take a permit from the client's and the ticker's bucket, or from neither when one of them is exhausted,
+     * so an order rejected by the ticker limit does not use up the client's limit
+     *
+     * @param clientKey the key returned by {@link #clientKey(String, String)}
+     * @return 0 when the order is admitted, otherwise the nanoseconds until it would be
+     */
+    public long acquire(String clientKey, String ticker) {
+        long clientWait = acquireClient(clientKey);
+        if (clientWait > 0) {
+            return clientWait;
+        }
+        long tickerWait = acquireTicker(ticker);
+        if (tickerWait > 0) {
+            releaseClient(clientKey);
+        }
+        return tickerWait;
+    }
+
+    /**
+     * @throws RateLimitExceededException when the client or the ticker exceeded its rate limit, no permit is taken then
+     */
+    public void admit(String clientKey, String ticker) {
+        reject(acquireClient(clientKey), "Too many orders, slow down");
+        long tickerWait = acquireTicker(ticker);
+        if (tickerWait > 0) {
+            releaseClient(clientKey);
+        }
+        reject(tickerWait, "Too many orders for ticker " + ticker + ", slow down");
+    }
+
+    /**
+     * @throws RateLimitExceededException when the client exceeded its rate limit
+     */
+    public void admitClient(String clientKey) {
+        reject(acquireClient(clientKey), "Too many orders, slow down");
+    }
+
+    /**
+     * @throws RateLimitExceededException when the ticker exceeded its rate limit
+     */
+    public void admitTicker(String ticker) {
+        reject(acquireTicker(ticker), "Too many orders for ticker " + ticker + ", slow down");
+    }
+
+    private void releaseClient(String clientKey) {
+        // a key beyond max-keys took its permit from the overflow bucket
+        AtomicLong bucket = clients.containsKey(clientKey) ? clients.get(clientKey) : clients.get(OVERFLOW_KEY);
+        if (bucket != null) {
+            clientLimit.release(bucket);
+        }
+    }
+
+    public int size() {
+        return clients.size() + tickers.size();
+    }
+
+    @Scheduled(fixedRateString = "${orderbook.rate-limit.sweep-interval:PT1M}")
+    public void evictIdle() {
+        long now = now();
+        // a request racing with the removal may be admitted against a fresh bucket, which at most allows one extra burst
+        clients.values().removeIf(bucket -> GcraLimit.isIdle(bucket, now));
+        tickers.values().removeIf(bucket -> GcraLimit.isIdle(bucket, now));
+        log.debug("{} client and {} ticker rate limit buckets in use", clients.size(), tickers.size());
+    }
+
+    private long acquire(Map<String, AtomicLong> buckets, GcraLimit limit, String key, Counter admitted, Counter rejected) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                sweepWhenFull();
+            }
+            bucket = buckets.computeIfAbsent(buckets.size() < maxKeys ? key : OVERFLOW_KEY, newKey -> new AtomicLong());
+        }
+        long wait = limit.acquire(bucket, now());
+        (wait == 0 ? admitted : rejected).increment();
+        return wait;
+    }
+
+    /**
+     * Make room for new keys instead of waiting for the next scheduled sweep, at most once per second
+     */
+    private void sweepWhenFull() {
+        long now = now();
+        long last = lastFullSweep.get();
+        if (now - last >= FULL_SWEEP_INTERVAL && lastFullSweep.compareAndSet(last, now)) {
+            evictIdle();
+        }
+    }
+
+    private static void reject(long waitNanos, String message) {
+        if (waitNanos > 0) {
+            // Retry-After only has a resolution of seconds, rounding up keeps clients from retrying too early
+            long seconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new RateLimitExceededException(message, seconds);
+        }
+    }
+
+    private long now() {
+        // relative to construction, so a new bucket with a theoretical arrival of 0 is always idle
+        return System.nanoTime() - origin;
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String scope, String outcome) {
+        return Counter.builder("orderbook.rate_limit.requests")
+                .tag("scope", scope)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
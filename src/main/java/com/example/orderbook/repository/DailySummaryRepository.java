@@ -0,0 +1,48 @@
+package com.example.orderbook.repository;
+
+import com.example.orderbook.service.entity.DailySummaryEntity;
+import com.example.orderbook.service.entity.DailySummaryId;
+import com.example.orderbook.service.entity.OrderSide;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface DailySummaryRepository extends JpaRepository<DailySummaryEntity, DailySummaryId> {
+    List<DailySummaryEntity> getAllByTickerAndDate(String ticker, LocalDate date);
+
+    @Query("select max(s.date) from DailySummaryEntity s")
+    Optional<LocalDate> findLatestDate();
+
+    @Modifying
+    @Query("delete from DailySummaryEntity s where s.date = :date")
+    void deleteAllByDate(@Param("date") LocalDate date);
+
+    /**
+     * Add one order to an existing summary in a single statement, so concurrent additions cannot overwrite each other
+     *
+     * @return 0 if the day has no summary for the ticker and side yet
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "update daily_summary set order_count = order_count + 1, " +
+            "min_price = least(min_price, :price), max_price = greatest(max_price, :price), sum_price = sum_price + :price " +
+            "where ticker = :ticker and order_side = :#{#orderSide.name()} and date = :date", nativeQuery = true)
+    int addOrder(@Param("ticker") String ticker, @Param("orderSide") OrderSide orderSide,
+                 @Param("date") LocalDate date, @Param("price") double price);
+
+    /**
+     * Create the summary of a single order, fails with a DataIntegrityViolationException if it was created concurrently
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into daily_summary (ticker, order_side, date, order_count, min_price, max_price, sum_price) " +
+            "values (:ticker, :#{#orderSide.name()}, :date, 1, :price, :price, :price)", nativeQuery = true)
+    void insertOrder(@Param("ticker") String ticker, @Param("orderSide") OrderSide orderSide,
+                     @Param("date") LocalDate date, @Param("price") double price);
+}
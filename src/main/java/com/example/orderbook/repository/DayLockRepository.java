@@ -0,0 +1,31 @@
+package com.example.orderbook.repository;
+
+import com.example.orderbook.service.entity.DayLockEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface DayLockRepository extends JpaRepository<DayLockEntity, LocalDate> {
+
+    /**
+     * Lock the row of a day until the surrounding transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from DayLockEntity d where d.date = :date")
+    Optional<DayLockEntity> lock(@Param("date") LocalDate date);
+
+    /**
+     * Create the row of a day, fails with a DataIntegrityViolationException if it was created concurrently
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into day_lock (date, archived) values (:date, false)", nativeQuery = true)
+    void insert(@Param("date") LocalDate date);
+}
@@ -1,12 +1,68 @@
 package com.example.orderbook.repository;
 
+import com.example.orderbook.service.entity.DailySummaryEntity;
 import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import com.example.orderbook.service.entity.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
-    List<OrderEntity> getAllOrdersByTickerAndDate(String ticker, LocalDate date);
-    List<OrderEntity> getAllOrdersByTickerAndOrderSideAndDate(String ticker, String orderSide, LocalDate date);
-}
\ No newline at end of file
+    List<OrderEntity> getAllOrdersByTickerAndDateAndStatus(String ticker, LocalDate date, OrderStatus status);
+    List<OrderEntity> getAllOrdersByTickerAndOrderSideAndDateAndStatus(String ticker, OrderSide orderSide, LocalDate date, OrderStatus status);
+    List<OrderEntity> getAllOrdersByDateAndStatusOrderById(LocalDate date, OrderStatus status);
+    Optional<OrderEntity> findByIdempotencyKey(String idempotencyKey);
+
+    @Query("select distinct o.date from OrderEntity o where o.date > :after and o.date < :before order by o.date")
+    List<LocalDate> findDistinctDatesBetween(@Param("after") LocalDate after, @Param("before") LocalDate before);
+
+    /**
+     * Orders of a ticker up to and including a date that come after the given (date, id) position, in (date, id) order
+     */
+    @Query("select o from OrderEntity o where o.ticker = :ticker and o.date <= :to " +
+            "and (o.date > :afterDate or (o.date = :afterDate and o.id > :afterId)) order by o.date, o.id")
+    List<OrderEntity> findPageByTicker(@Param("ticker") String ticker, @Param("afterDate") LocalDate afterDate,
+                                       @Param("afterId") long afterId, @Param("to") LocalDate to, Limit limit);
+
+    @Query("select new com.example.orderbook.service.entity.DailySummaryEntity(o.ticker, o.orderSide, o.date, count(o), min(o.price), max(o.price), sum(o.price)) " +
+            "from OrderEntity o where o.date = :date and o.status = com.example.orderbook.service.entity.OrderStatus.ACTIVE " +
+            "group by o.ticker, o.orderSide, o.date")
+    List<DailySummaryEntity> summarizeDate(@Param("date") LocalDate date);
+
+    /**
+     * Cancel an order that is still active with the price and volume it was read with
+     *
+     * @return 1 when the order was cancelled, 0 when another request cancelled or amended it first
+     */
+    @Transactional
+    @Modifying
+    @Query("update OrderEntity o set o.status = com.example.orderbook.service.entity.OrderStatus.CANCELLED " +
+            "where o.id = :id and o.status = com.example.orderbook.service.entity.OrderStatus.ACTIVE " +
+            "and o.price = :price and o.volume = :volume")
+    int cancel(@Param("id") Long id, @Param("price") double price, @Param("volume") long volume);
+
+    /**
+     * Change the price and volume of an order that is still active with the price and volume it was read with
+     *
+     * @return 1 when the order was amended, 0 when another request cancelled or amended it first
+     */
+    @Transactional
+    @Modifying
+    @Query("update OrderEntity o set o.price = :price, o.volume = :volume " +
+            "where o.id = :id and o.status = com.example.orderbook.service.entity.OrderStatus.ACTIVE " +
+            "and o.price = :previousPrice and o.volume = :previousVolume")
+    int amend(@Param("id") Long id, @Param("previousPrice") double previousPrice, @Param("previousVolume") long previousVolume,
+              @Param("price") double price, @Param("volume") long volume);
+
+    @Modifying
+    @Query("delete from OrderEntity o where o.date = :date")
+    int deleteAllByDate(@Param("date") LocalDate date);
+}
@@ -0,0 +1,14 @@
+package com.example.orderbook.repository;
+
+import com.example.orderbook.service.entity.ScreeningEntity;
+
+import java.util.List;
+
+public interface ScreeningBatchRepository {
+
+    /**
+     * Insert new orders for screening as one JDBC batch, the ids of the entities are not filled in
+     * An order with an idempotency key that is already in the table is not inserted again
+     */
+    void insertAll(List<ScreeningEntity> screenings);
+}
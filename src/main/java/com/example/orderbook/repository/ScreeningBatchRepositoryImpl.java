@@ -0,0 +1,41 @@
+package com.example.orderbook.repository;
+
+import com.example.orderbook.service.entity.ScreeningEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Screening ids come from an auto increment column, which keeps Hibernate from batching inserts through saveAll
+ * Orders whose idempotency key is already queued for screening are skipped, a retried rejection is screened once
+ */
+public class ScreeningBatchRepositoryImpl implements ScreeningBatchRepository {
+
+    private static final String INSERT = "insert ignore into screening_queue " +
+            "(received_at, date, ticker, order_side, volume, price, currency, daily_average, status, idempotency_key) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ScreeningBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(List<ScreeningEntity> screenings) {
+        jdbcTemplate.batchUpdate(INSERT, screenings, screenings.size(), (statement, screening) -> {
+            statement.setTimestamp(1, Timestamp.valueOf(screening.getReceivedAt()));
+            statement.setDate(2, Date.valueOf(screening.getDate()));
+            statement.setString(3, screening.getTicker());
+            statement.setString(4, screening.getOrderSide().name());
+            statement.setLong(5, screening.getVolume());
+            statement.setDouble(6, screening.getPrice());
+            statement.setString(7, screening.getCurrency());
+            statement.setDouble(8, screening.getDailyAverage());
+            statement.setString(9, screening.getStatus().name());
+            statement.setString(10, screening.getIdempotencyKey());
+        });
+    }
+}
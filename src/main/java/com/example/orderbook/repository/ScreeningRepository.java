@@ -0,0 +1,25 @@
+package com.example.orderbook.repository;
+
+import com.example.orderbook.service.entity.ScreeningEntity;
+import com.example.orderbook.service.entity.ScreeningStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ScreeningRepository extends JpaRepository<ScreeningEntity, Long>, ScreeningBatchRepository {
+    List<ScreeningEntity> findByStatusOrderById(ScreeningStatus status, Limit limit);
+
+    /**
+     * Move a pending order to the decided status, only one of several concurrent decisions gets 1 back
+     */
+    @Transactional
+    @Modifying
+    @Query("update ScreeningEntity s set s.status = :decision " +
+            "where s.id = :id and s.status = com.example.orderbook.service.entity.ScreeningStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("decision") ScreeningStatus decision);
+}
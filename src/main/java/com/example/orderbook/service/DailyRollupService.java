@@ -0,0 +1,74 @@
+package com.example.orderbook.service;
+
+import com.example.orderbook.cluster.TickerRouter;
+import com.example.orderbook.repository.DailySummaryRepository;
+import com.example.orderbook.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@Slf4j
+public class DailyRollupService {
+
+    private final OrderRepository orderRepository;
+    private final DailySummaryRepository dailySummaryRepository;
+    private final OrderArchiver orderArchiver;
+    private final DayLocks dayLocks;
+    private final TickerRouter tickerRouter;
+    private final boolean enabled;
+
+    public DailyRollupService(OrderRepository orderRepository,
+                              DailySummaryRepository dailySummaryRepository,
+                              OrderArchiver orderArchiver,
+                              DayLocks dayLocks,
+                              TickerRouter tickerRouter,
+                              @Value("${orderbook.rollup.enabled:true}") boolean enabled) {
+        this.orderRepository = orderRepository;
+        this.dailySummaryRepository = dailySummaryRepository;
+        this.orderArchiver = orderArchiver;
+        this.dayLocks = dayLocks;
+        this.tickerRouter = tickerRouter;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Roll up every closed trading day that has not been summarized yet, then archive old raw orders
+     * Each day is written in its own transaction, so an interrupted run simply continues from the last completed day
+     * The database is shared, so only the cluster leader runs the job, instances without cluster mode
+     * run it unless orderbook.rollup.enabled is false
+     */
+    @Scheduled(cron = "${orderbook.rollup.cron}")
+    public void rollUpClosedDays() {
+        if (!enabled || !tickerRouter.isLeader()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate lastRolledUp = dailySummaryRepository.findLatestDate().orElse(LocalDate.EPOCH);
+
+        List<LocalDate> closedDays = orderRepository.findDistinctDatesBetween(lastRolledUp, today);
+        for (LocalDate date : closedDays) {
+            rollUp(date);
+        }
+
+        orderArchiver.archiveClosedDays(dailySummaryRepository.findLatestDate().orElse(LocalDate.EPOCH));
+    }
+
+    /**
+     * Replace the summary rows for a single day with fresh aggregates from the orders table
+     * The day is locked meanwhile, so orders approved from screening are counted exactly once
+     *
+     * @param date the closed trading day to summarize
+     */
+    public void rollUp(LocalDate date) {
+        dayLocks.executeWithoutResult(date, day -> {
+            dailySummaryRepository.deleteAllByDate(date);
+            dailySummaryRepository.saveAll(orderRepository.summarizeDate(date));
+        });
+        log.info("Rolled up orders for {}", date);
+    }
+}
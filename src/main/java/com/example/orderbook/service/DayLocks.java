@@ -0,0 +1,67 @@
+package com.example.orderbook.service;
+
+import com.example.orderbook.repository.DayLockRepository;
+import com.example.orderbook.service.entity.DayLockEntity;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Serializes changes to a closed day between the nightly rollup, the archiver and approvals from screening
+ * <p>
+ * Each of them changes the day in a transaction that first locks the day's row in day_lock, so the lock
+ * holds across every instance sharing the database. An approval therefore either lands before the rollup
+ * reads the day's orders or is added to the summary the rollup wrote, and never after the archiver
+ * has taken the day.
+ */
+@Component
+public class DayLocks {
+
+    private final DayLockRepository dayLockRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public DayLocks(DayLockRepository dayLockRepository, PlatformTransactionManager transactionManager) {
+        this.dayLockRepository = dayLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Run work in a transaction that holds the lock of a day, must not be called inside another transaction
+     *
+     * @param work gets the locked day, to see whether it is archived
+     */
+    public <T> T execute(LocalDate date, Function<DayLockEntity, T> work) {
+        create(date);
+        return transactionTemplate.execute(status -> work.apply(dayLockRepository.lock(date).orElseThrow()));
+    }
+
+    public void executeWithoutResult(LocalDate date, Consumer<DayLockEntity> work) {
+        execute(date, day -> {
+            work.accept(day);
+            return null;
+        });
+    }
+
+    /**
+     * Mark a day as archived, no approval changes its orders after this returns
+     */
+    public void markArchived(LocalDate date) {
+        executeWithoutResult(date, day -> day.setArchived(true));
+    }
+
+    private void create(LocalDate date) {
+        if (dayLockRepository.existsById(date)) {
+            return;
+        }
+        try {
+            dayLockRepository.insert(date);
+        } catch (DataIntegrityViolationException e) {
+            // created by a concurrent caller
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.orderbook.service;
+
+import com.example.orderbook.service.entity.OrderEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Remembers the order created for each idempotency key for a limited time
+ * <p>
+ * Keys live in a hash map for O(1) lookups. Each key is also appended to the current bucket of a ring;
+ * every bucket interval the ring moves on and the keys of the oldest bucket are removed, so a key is kept
+ * for between buckets - 1 and buckets intervals. The map never grows beyond the configured maximum,
+ * once it is full new keys are only protected by the unique column in the database.
+ */
+@Slf4j
+@Component
+public class IdempotencyIndex {
+
+    private final ConcurrentHashMap<String, OrderEntity> orders = new ConcurrentHashMap<>();
+    private final Queue<String>[] buckets;
+    private final int maxKeys;
+    private volatile int head;
+
+    @SuppressWarnings("unchecked")
+    public IdempotencyIndex(@Value("${orderbook.idempotency.buckets}") int buckets,
+                            @Value("${orderbook.idempotency.max-keys}") int maxKeys) {
+        this.buckets = new Queue[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.maxKeys = maxKeys;
+    }
+
+    public Optional<OrderEntity> get(String idempotencyKey) {
+        return Optional.ofNullable(orders.get(idempotencyKey));
+    }
+
+    public void put(String idempotencyKey, OrderEntity order) {
+        if (orders.size() >= maxKeys) {
+            log.warn("Idempotency index is full, key {} is only kept in the database", idempotencyKey);
+            return;
+        }
+        if (orders.putIfAbsent(idempotencyKey, order) == null) {
+            buckets[head].add(idempotencyKey);
+        }
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    @Scheduled(fixedRateString = "${orderbook.idempotency.bucket-interval}", initialDelayString = "${orderbook.idempotency.bucket-interval}")
+    public synchronized void rotate() {
+        int next = (head + 1) % buckets.length;
+        Queue<String> expired = buckets[next];
+        String idempotencyKey;
+        while ((idempotencyKey = expired.poll()) != null) {
+            orders.remove(idempotencyKey);
+        }
+        head = next;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.orderbook.service;
+
+import com.example.orderbook.archive.ColumnarArchiveReader;
+import com.example.orderbook.archive.ColumnarArchiveWriter;
+import com.example.orderbook.repository.OrderRepository;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@Slf4j
+public class OrderArchiver {
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DayLocks dayLocks;
+    private final int retentionDays;
+    private final Path directory;
+
+    public OrderArchiver(OrderRepository orderRepository,
+                         PlatformTransactionManager transactionManager,
+                         DayLocks dayLocks,
+                         @Value("${orderbook.archive.retention-days}") int retentionDays,
+                         @Value("${orderbook.archive.directory}") Path directory) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dayLocks = dayLocks;
+        this.retentionDays = retentionDays;
+        this.directory = directory;
+    }
+
+    /**
+     * Move raw orders older than the retention period into columnar archive files, one file per month
+     * Only days that are already rolled up are archived, so summaries for them are still available
+     * Cancelled orders are not part of any summary and are dropped instead of archived
+     *
+     * @param lastRolledUp the latest day present in the summary table
+     */
+    public void archiveClosedDays(LocalDate lastRolledUp) {
+        if (retentionDays <= 0) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        LocalDate afterLastRolledUp = lastRolledUp.plusDays(1);
+        LocalDate before = cutoff.isBefore(afterLastRolledUp) ? cutoff : afterLastRolledUp;
+
+        for (LocalDate date : orderRepository.findDistinctDatesBetween(LocalDate.EPOCH, before)) {
+            archive(date);
+        }
+    }
+
+    /**
+     * Whether the raw orders of a day were moved into an archive file, the day's orders can no longer change then
+     */
+    public boolean isArchived(LocalDate date) {
+        Path file = archiveFile(YearMonth.from(date));
+        if (retentionDays <= 0 || !Files.exists(file)) {
+            return false;
+        }
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            return reader.contains(date);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive " + file, e);
+        }
+    }
+
+    /**
+     * The first day whose raw orders are still in the database however far archiving has got, empty when it is off
+     */
+    public Optional<LocalDate> firstRetainedDate() {
+        return retentionDays > 0 ? Optional.of(LocalDate.now().minusDays(retentionDays)) : Optional.empty();
+    }
+
+    /**
+     * Archived orders of a ticker up to and including a date that come after the given (date, id) position,
+     * in (date, id) order. Archived days come before every day still in the database, so a listing continues
+     * in the database after the last archived order.
+     *
+     * @param limit maximum number of orders to return
+     */
+    public List<OrderEntity> findPage(String ticker, LocalDate afterDate, long afterId, LocalDate to, int limit) {
+        List<OrderEntity> page = new ArrayList<>();
+        if (retentionDays <= 0) {
+            return page;
+        }
+        LocalDate firstRetained = firstRetainedDate().orElseThrow();
+        YearMonth last = YearMonth.from(to.isBefore(firstRetained) ? to : firstRetained);
+        for (YearMonth month = YearMonth.from(afterDate); !month.isAfter(last) && page.size() < limit; month = month.plusMonths(1)) {
+            Path file = archiveFile(month);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+                page.addAll(reader.findPage(ticker, afterDate, afterId, to, limit - page.size()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read archive " + file, e);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * The active orders of a ticker on an archived day, empty when the day is not archived
+     */
+    public List<OrderEntity> findOrders(String ticker, LocalDate date) {
+        return findPage(ticker, date, 0, date, Integer.MAX_VALUE);
+    }
+
+    private Path archiveFile(YearMonth month) {
+        return directory.resolve("orders-" + month + ".obca");
+    }
+
+    /**
+     * Add a day to the archive file of its month
+     * The file is rewritten with the days it already holds and the new one, a day that is already in it
+     * is replaced by the orders still in the database, which stay the source until they are deleted
+     */
+    private void archive(LocalDate date) {
+        // approvals from screening stop adding orders to the day before they are read
+        dayLocks.markArchived(date);
+        List<OrderEntity> orders = orderRepository.getAllOrdersByDateAndStatusOrderById(date, OrderStatus.ACTIVE);
+        Path target = archiveFile(YearMonth.from(date));
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            // write to a temporary file first, a crash never leaves a truncated archive behind
+            temporary = Files.createTempFile(directory, "orders-" + date, ".tmp");
+            try (ColumnarArchiveWriter writer = new ColumnarArchiveWriter(temporary)) {
+                if (Files.exists(target)) {
+                    try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(target)) {
+                        if (reader.contains(date)) {
+                            log.warn("Orders for {} are already in {}, replacing them with the orders in the database", date, target);
+                        }
+                        reader.forEach(order -> {
+                            if (order.getDate().isBefore(date)) {
+                                writer.append(order);
+                            }
+                        });
+                        for (OrderEntity order : orders) {
+                            writer.append(order);
+                        }
+                        reader.forEach(order -> {
+                            if (order.getDate().isAfter(date)) {
+                                writer.append(order);
+                            }
+                        });
+                    }
+                } else {
+                    for (OrderEntity order : orders) {
+                        writer.append(order);
+                    }
+                }
+            }
+            // the new file holds everything the old one did
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temporary);
+            throw new UncheckedIOException("Could not archive orders for " + date, e);
+        }
+
+        int deleted = transactionTemplate.execute(status -> orderRepository.deleteAllByDate(date));
+        log.info("Archived {} orders for {} to {}", deleted, date, target);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.error("Could not delete {}", file, e);
+        }
+    }
+}
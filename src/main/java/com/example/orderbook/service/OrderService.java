@@ -1,27 +1,81 @@
 package com.example.orderbook.service;
 
+import com.example.orderbook.api.exceptionhandling.OrderNotAmendableException;
+import com.example.orderbook.api.exceptionhandling.OrderNotFoundException;
+import com.example.orderbook.api.exceptionhandling.OrderValidationException;
 import com.example.orderbook.api.exceptionhandling.SuspiciousDeviationException;
 import com.example.orderbook.api.exceptionhandling.TickerNotFoundException;
+import com.example.orderbook.api.exceptionhandling.UnsupportedCurrencyException;
+import com.example.orderbook.cluster.TickerRouter;
+import com.example.orderbook.repository.DailySummaryRepository;
 import com.example.orderbook.repository.OrderRepository;
+import com.example.orderbook.service.aggregate.OrderAggregates;
+import com.example.orderbook.service.aggregate.PriceSummary;
+import com.example.orderbook.service.aggregate.SideAggregate;
+import com.example.orderbook.service.book.BookSnapshot;
+import com.example.orderbook.service.book.OrderBook;
+import com.example.orderbook.service.book.OrderBooks;
 import com.example.orderbook.service.entity.BuySummary;
+import com.example.orderbook.service.entity.DailySummaryEntity;
+import com.example.orderbook.service.entity.OrderAmendment;
+import com.example.orderbook.service.entity.OrderBookResponse;
 import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderListResponse;
+import com.example.orderbook.service.entity.OrderSide;
+import com.example.orderbook.service.entity.OrderStatus;
 import com.example.orderbook.service.entity.SellSummary;
 import com.example.orderbook.service.entity.SummaryResponse;
+import com.example.orderbook.service.fx.FxRateService;
+import com.example.orderbook.service.fx.FxRateTable;
+import com.example.orderbook.service.screening.ScreeningQueue;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 
 @Service
 @Slf4j
 public class OrderService {
 
+    public static final int MAX_LIST_LIMIT = 5000;
+
     private final OrderRepository orderRepository;
+    private final DailySummaryRepository dailySummaryRepository;
+    private final FxRateService fxRateService;
+    private final IdempotencyIndex idempotencyIndex;
+    private final OrderAggregates orderAggregates;
+    private final OrderBooks orderBooks;
+    private final ScreeningQueue screeningQueue;
+    private final TickerRouter tickerRouter;
+    private final OrderArchiver orderArchiver;
 
-    public OrderService(OrderRepository orderRepository) {
+    public OrderService(OrderRepository orderRepository, DailySummaryRepository dailySummaryRepository, FxRateService fxRateService,
+                        IdempotencyIndex idempotencyIndex, OrderAggregates orderAggregates, OrderBooks orderBooks,
+                        ScreeningQueue screeningQueue, TickerRouter tickerRouter, OrderArchiver orderArchiver) {
         this.orderRepository = orderRepository;
+        this.dailySummaryRepository = dailySummaryRepository;
+        this.fxRateService = fxRateService;
+        this.idempotencyIndex = idempotencyIndex;
+        this.orderAggregates = orderAggregates;
+        this.orderBooks = orderBooks;
+        this.screeningQueue = screeningQueue;
+        this.tickerRouter = tickerRouter;
+        this.orderArchiver = orderArchiver;
+        // a ticker that moved away and comes back must not be answered from what was kept before
+        tickerRouter.onOwnershipChange(() -> {
+            orderAggregates.clear();
+            orderBooks.clear();
+        });
     }
 
     /**
@@ -32,24 +86,227 @@ public class OrderService {
      * @return OrderEntity, now enriched with date and id
      */
     public OrderEntity saveNewOrder(OrderEntity order) {
-        if (acceptableDeviation(order)) {
-            order.setDate(LocalDate.now());
-            return orderRepository.save(order);
+        LocalDate date = LocalDate.now();
+        // an aggregate that is not kept is loaded for the average only, adding to it afterwards does no harm
+        SideAggregate aggregate = keptAggregate(order.getTicker(), order.getOrderSide(), date)
+                .orElseGet(() -> new SideAggregate(getAllOrders(order.getTicker(), order.getOrderSide(), date)));
+        double dailyAverage = aggregate.average(fxRateService.current(), order.getCurrency());
+        order.setDate(date);
+        if (isWithinTenPercentRange(order.getPrice(), dailyAverage)) {
+            order.setStatus(OrderStatus.ACTIVE);
+            Optional<OrderBook> book = keptBook(order.getTicker(), date);
+            OrderEntity savedOrder = orderRepository.save(order);
+            aggregate.add(order.getCurrency(), order.getPrice());
+            book.ifPresent(kept -> kept.add(order.getOrderSide(), order.getCurrency(), order.getPrice(), order.getVolume()));
+            return savedOrder;
         } else {
+            screeningQueue.offer(order, dailyAverage);
             throw new SuspiciousDeviationException("The price deviates more than 10% from the daily average.");
         }
     }
 
-    private boolean acceptableDeviation(OrderEntity order) {
-        LocalDate date = LocalDate.now();
+    /**
+     * Save an order that was rejected as a suspicious deviation and then approved in screening
+     * The order keeps the day it was placed on. On the current day it joins the aggregates and the book,
+     * on a day that is already rolled up it is added to the day's summary.
+     *
+     * @param order the approved order with its original date
+     * @return OrderEntity, now enriched with id
+     */
+    public OrderEntity saveApprovedOrder(OrderEntity order) {
+        order.setStatus(OrderStatus.ACTIVE);
+        if (order.getDate().equals(LocalDate.now())) {
+            Optional<SideAggregate> aggregate = keptAggregate(order.getTicker(), order.getOrderSide(), order.getDate());
+            Optional<OrderBook> book = keptBook(order.getTicker(), order.getDate());
+            OrderEntity savedOrder = orderRepository.save(order);
+            aggregate.ifPresent(kept -> kept.add(order.getCurrency(), order.getPrice()));
+            book.ifPresent(kept -> kept.add(order.getOrderSide(), order.getCurrency(), order.getPrice(), order.getVolume()));
+            return savedOrder;
+        }
+        OrderEntity savedOrder = orderRepository.save(order);
+        LocalDate lastRolledUp = dailySummaryRepository.findLatestDate().orElse(LocalDate.EPOCH);
+        if (!order.getDate().isAfter(lastRolledUp)) {
+            addToSummary(order);
+        }
+        // otherwise the nightly rollup has not reached the day yet and counts the order itself
+        return savedOrder;
+    }
+
+    private void addToSummary(OrderEntity order) {
+        if (dailySummaryRepository.addOrder(order.getTicker(), order.getOrderSide(), order.getDate(), order.getPrice()) == 1) {
+            return;
+        }
+        try {
+            dailySummaryRepository.insertOrder(order.getTicker(), order.getOrderSide(), order.getDate(), order.getPrice());
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent approval created the summary first
+            dailySummaryRepository.addOrder(order.getTicker(), order.getOrderSide(), order.getDate(), order.getPrice());
+        }
+    }
+
+    /**
+     * Save a new order at most once per idempotency key
+     * A retry with a known key gets the original order back, from memory while the key is in the index
+     * and from the unique idempotency column after that
+     *
+     * @param order          the object sent in from client
+     * @param idempotencyKey key chosen by the client, or null to always create a new order
+     * @return OrderEntity, now enriched with date and id
+     */
+    public OrderEntity saveNewOrder(OrderEntity order, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return saveNewOrder(order);
+        }
+        Optional<OrderEntity> previousOrder = idempotencyIndex.get(idempotencyKey);
+        if (previousOrder.isPresent()) {
+            log.info("Returning order {} for repeated idempotency key {}", previousOrder.get().getId(), idempotencyKey);
+            return previousOrder.get();
+        }
+
+        OrderEntity savedOrder;
+        try {
+            order.setIdempotencyKey(idempotencyKey);
+            savedOrder = saveNewOrder(order);
+        } catch (DataIntegrityViolationException e) {
+            // the key was used before this instance started, or by a concurrent request
+            savedOrder = orderRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+        }
+        idempotencyIndex.put(idempotencyKey, savedOrder);
+        return savedOrder;
+    }
+
+    /**
+     * The order saved for an idempotency key, from memory while the key is in the index and from the database after that
+     */
+    public Optional<OrderEntity> findByIdempotencyKey(String idempotencyKey) {
+        Optional<OrderEntity> order = idempotencyIndex.get(idempotencyKey);
+        return order.isPresent() ? order : orderRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
+    /**
+     * Cancel an order of the current day, it no longer counts toward the summary or the daily average
+     * Cancelling a cancelled order returns it unchanged
+     * The order is only cancelled when it still is as it was read, so of two concurrent requests
+     * only one changes the aggregates and the book, the other reads the order again
+     *
+     * @param id the id of the order to cancel
+     * @return OrderEntity with status CANCELLED
+     */
+    public OrderEntity cancelOrder(Long id) {
+        while (true) {
+            OrderEntity order = findOrder(id);
+            if (order.getStatus() == OrderStatus.CANCELLED) {
+                return order;
+            }
+            requireCurrentDay(order);
 
-        // get all relevant orders for the day (ticker, order side, date)
-        List<OrderEntity> orderEntities = getAllOrders(order.getTicker(), order.getOrderSide(), date);
+            Optional<SideAggregate> aggregate = keptAggregate(order.getTicker(), order.getOrderSide(), order.getDate());
+            Optional<OrderBook> book = keptBook(order.getTicker(), order.getDate());
+            if (orderRepository.cancel(id, order.getPrice(), order.getVolume()) == 1) {
+                aggregate.ifPresent(kept -> kept.remove(order.getCurrency(), order.getPrice()));
+                book.ifPresent(kept -> kept.remove(order.getOrderSide(), order.getCurrency(), order.getPrice(), order.getVolume()));
+                order.setStatus(OrderStatus.CANCELLED);
+                return order;
+            }
+            log.info("Order with ID: {} changed while it was cancelled, reading it again", id);
+        }
+    }
+
+    /**
+     * Change the volume and/or price of an active order of the current day
+     * A new price has to pass the same deviation check as a new order
+     * Like a cancellation the order is only changed when it still is as it was read
+     *
+     * @param id        the id of the order to amend
+     * @param amendment the fields to change, missing fields are left as they are
+     * @return the amended OrderEntity
+     */
+    public OrderEntity amendOrder(Long id, OrderAmendment amendment) {
+        while (true) {
+            OrderEntity order = findOrder(id);
+            if (order.getStatus() == OrderStatus.CANCELLED) {
+                throw new OrderNotAmendableException("A cancelled order cannot be amended");
+            }
+            requireCurrentDay(order);
+
+            double previousPrice = order.getPrice();
+            long previousVolume = order.getVolume();
+            double price = amendment.getPrice() != null ? amendment.getPrice() : previousPrice;
+            long volume = amendment.getVolume() != null ? amendment.getVolume() : previousVolume;
+            Optional<SideAggregate> aggregate = keptAggregate(order.getTicker(), order.getOrderSide(), order.getDate());
+            if (price != previousPrice) {
+                double dailyAverage = aggregate
+                        .orElseGet(() -> new SideAggregate(getAllOrders(order.getTicker(), order.getOrderSide(), order.getDate())))
+                        .average(fxRateService.current(), order.getCurrency());
+                if (!isWithinTenPercentRange(price, dailyAverage)) {
+                    throw new SuspiciousDeviationException("The price deviates more than 10% from the daily average.");
+                }
+            }
+            Optional<OrderBook> book = keptBook(order.getTicker(), order.getDate());
+            if (orderRepository.amend(id, previousPrice, previousVolume, price, volume) == 1) {
+                if (price != previousPrice) {
+                    aggregate.ifPresent(kept -> kept.replace(order.getCurrency(), previousPrice, price));
+                }
+                book.ifPresent(kept -> kept.replace(order.getOrderSide(), order.getCurrency(), previousPrice, previousVolume, price, volume));
+                order.setPrice(price);
+                order.setVolume(volume);
+                return order;
+            }
+            log.info("Order with ID: {} changed while it was amended, reading it again", id);
+        }
+    }
 
-        // calculate average price for the day
-        double avg = orderEntities.stream().mapToDouble(OrderEntity::getPrice).average().orElse(0);
+    private OrderEntity findOrder(Long id) {
+        return orderRepository.findById(id).orElseThrow(() -> {
+            log.error("Order with ID: {} could not be found", id);
+            return new OrderNotFoundException("The order could not be found");
+        });
+    }
 
-        return isWithinTenPercentRange(order.getPrice(), avg);
+    private void requireCurrentDay(OrderEntity order) {
+        // closed days are rolled up and possibly archived, their orders can no longer change
+        if (!LocalDate.now().equals(order.getDate())) {
+            log.error("Order with ID: {} from {} can no longer be changed", order.getId(), order.getDate());
+            throw new OrderNotAmendableException("Only orders from the current day can be cancelled or amended");
+        }
+    }
+
+    /**
+     * The kept aggregate, loaded before a change is written so the change can be applied to it afterwards
+     *
+     * @return empty when the aggregates of the ticker are not kept in memory
+     */
+    private Optional<SideAggregate> keptAggregate(String ticker, OrderSide orderSide, LocalDate date) {
+        if (!tickerRouter.seesEveryChangeTo(ticker)) {
+            return Optional.empty();
+        }
+        return Optional.of(orderAggregates.forSide(ticker, orderSide, date, () -> getAllOrders(ticker, orderSide, date)));
+    }
+
+    /**
+     * The kept book, loaded before a change is written so the change can be applied to it afterwards
+     *
+     * @return empty when the books of the ticker are not kept in memory
+     */
+    private Optional<OrderBook> keptBook(String ticker, LocalDate date) {
+        if (!tickerRouter.seesEveryChangeTo(ticker)) {
+            return Optional.empty();
+        }
+        return Optional.of(orderBooks.forTicker(ticker, date, () -> getActiveOrders(ticker, date)));
+    }
+
+    /**
+     * In-memory state is only correct when every change to the ticker goes through this instance,
+     * everything else is read from the database
+     */
+    private OrderBook readBook(String ticker, LocalDate date) {
+        Supplier<List<OrderEntity>> loader = () -> getActiveOrders(ticker, date);
+        return tickerRouter.seesEveryChangeTo(ticker) ? orderBooks.lookup(ticker, date, loader) : orderBooks.load(loader);
+    }
+
+    private SideAggregate readAggregate(String ticker, OrderSide orderSide, LocalDate date) {
+        Supplier<List<OrderEntity>> loader = () -> getAllOrders(ticker, orderSide, date);
+        return tickerRouter.seesEveryChangeTo(ticker) ? orderAggregates.lookup(ticker, orderSide, date, loader) : new SideAggregate(loader.get());
     }
 
     public boolean isWithinTenPercentRange(double price, double avg) {
@@ -67,24 +324,152 @@ public class OrderService {
         }
     }
 
-    private List<OrderEntity> getAllOrders(String ticker, String orderSide, LocalDate date) {
-        return orderRepository.getAllOrdersByTickerAndOrderSideAndDate(ticker, orderSide, date);
+    private List<OrderEntity> getAllOrders(String ticker, OrderSide orderSide, LocalDate date) {
+        return orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, orderSide, date, OrderStatus.ACTIVE);
+    }
+
+    private List<OrderEntity> getActiveOrders(String ticker, LocalDate date) {
+        return orderRepository.getAllOrdersByTickerAndDateAndStatus(ticker, date, OrderStatus.ACTIVE);
     }
 
     public Optional<OrderEntity> getOrderById(Long id) {
         return orderRepository.findById(id);
     }
 
+    /**
+     * One page of a ticker's orders between two dates, active and cancelled, in (date, id) order
+     * Archived days are listed from the archive, which only keeps the active orders
+     * <p>
+     * Pages are addressed by the position of their last order instead of an offset,
+     * so every page is an index range scan no matter how deep into the listing it is.
+     *
+     * @param ticker the stock to list the orders of
+     * @param from   first date to list
+     * @param to     last date to list
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit  maximum number of orders in the page
+     * @return OrderListResponse with the orders as parallel arrays
+     */
+    public OrderListResponse listOrders(String ticker, LocalDate from, LocalDate to, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            throw new OrderValidationException(Map.of("limit", "Limit must be between 1 and " + MAX_LIST_LIMIT));
+        }
+        if (to.isBefore(from)) {
+            throw new OrderValidationException(Map.of("to", "The last date must not be before the first date"));
+        }
+        LocalDate afterDate = from;
+        long afterId = 0;
+        if (cursor != null) {
+            int separator = cursor.indexOf(':');
+            try {
+                afterDate = LocalDate.parse(cursor.substring(0, Math.max(separator, 0)));
+                afterId = Long.parseLong(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new OrderValidationException(Map.of("cursor", "The cursor must be the nextCursor of a previous page"));
+            }
+            if (afterDate.isBefore(from) || afterDate.isAfter(to)) {
+                // a cursor of another range would list orders outside this one
+                throw new OrderValidationException(Map.of("cursor", "The cursor must be the nextCursor of a previous page"));
+            }
+        }
+        // one extra order tells whether there is a next page, so the last page never links to an empty one
+        // archived days come first, the listing carries on in the database after the last archived order
+        List<OrderEntity> orders = new ArrayList<>(orderArchiver.findPage(ticker, afterDate, afterId, to, limit + 1));
+        if (orders.size() <= limit) {
+            if (!orders.isEmpty()) {
+                OrderEntity last = orders.get(orders.size() - 1);
+                afterDate = last.getDate();
+                afterId = last.getId();
+            }
+            orders.addAll(orderRepository.findPageByTicker(ticker, afterDate, afterId, to, Limit.of(limit + 1 - orders.size())));
+        }
+        List<OrderEntity> page = orders.subList(0, Math.min(orders.size(), limit));
+        String nextCursor = null;
+        if (orders.size() > limit) {
+            OrderEntity last = page.get(page.size() - 1);
+            nextCursor = last.getDate() + ":" + last.getId();
+        }
+        return OrderListResponse.of(ticker, page, nextCursor);
+    }
+
+    /**
+     * Best bid and ask levels of the current day, read from the published snapshot of the ticker's book
+     *
+     * @param ticker   the stock to get the book for
+     * @param currency the currency of the book, may be left out when the ticker is traded in one currency only
+     * @param depth    number of price levels per side
+     * @return OrderBookResponse with the aggregated volume per price level
+     */
+    public OrderBookResponse getOrderBook(String ticker, String currency, int depth) {
+        if (depth < 1 || depth > orderBooks.maxDepth()) {
+            throw new OrderValidationException(Map.of("depth", "Depth must be between 1 and " + orderBooks.maxDepth()));
+        }
+        LocalDate date = LocalDate.now();
+        Map<String, BookSnapshot> snapshots = readBook(ticker, date).snapshots();
+        if (snapshots.isEmpty()) {
+            log.error("No orders found for ticker: {} on date: {}", ticker, date);
+            throw new TickerNotFoundException("The requested ticker could not be found for the given date");
+        }
+        if (currency == null) {
+            if (snapshots.size() > 1) {
+                throw new OrderValidationException(Map.of("currency", "The ticker is traded in several currencies, specify one of " + new TreeSet<>(snapshots.keySet())));
+            }
+            currency = snapshots.keySet().iterator().next();
+        }
+        BookSnapshot snapshot = snapshots.get(currency);
+        if (snapshot == null) {
+            log.error("No orders found for ticker: {} in currency: {}", ticker, currency);
+            throw new TickerNotFoundException("The requested ticker has no orders in " + currency);
+        }
+        return OrderBookResponse.builder()
+                .ticker(ticker)
+                .date(date)
+                .currency(currency)
+                .bids(snapshot.bids(depth))
+                .asks(snapshot.asks(depth))
+                .build();
+    }
+
     /**
      * Calculate the lowest, average and maximum orders for both selling and buying
      * Made the assumption that orders are not realized trades, so the summary is done for buy and sell separately
+     * The current day is answered from the in-memory aggregates,
+     * closed days that have been rolled up are answered from the summary table instead of the raw orders
      *
      * @param ticker the stock to calculate a summary for
      * @param date   defines the scope of the summary
      * @return SummaryResponse containing the calculated values
      */
     public SummaryResponse getSummary(String ticker, LocalDate date) {
-        List<OrderEntity> orderEntities = orderRepository.getAllOrdersByTickerAndDate(ticker, date);
+        return getSummary(ticker, date, null);
+    }
+
+    /**
+     * Calculate the summary with every price converted into a reporting currency
+     * Converted summaries are always calculated from the raw orders, since the rollup mixes currencies,
+     * for archived days from the orders in the archive
+     *
+     * @param ticker            the stock to calculate a summary for
+     * @param date              defines the scope of the summary
+     * @param reportingCurrency the currency to report prices in, or null to report prices as they were entered
+     * @return SummaryResponse containing the calculated values
+     */
+    public SummaryResponse getSummary(String ticker, LocalDate date, String reportingCurrency) {
+        if (date.equals(LocalDate.now())) {
+            return getCurrentDaySummary(ticker, date, reportingCurrency);
+        }
+        if (reportingCurrency == null && date.isBefore(LocalDate.now())) {
+            List<DailySummaryEntity> dailySummaries = dailySummaryRepository.getAllByTickerAndDate(ticker, date);
+            if (!dailySummaries.isEmpty()) {
+                return SummaryResponse.fromDailySummaries(ticker, date, dailySummaries);
+            }
+        }
+
+        List<OrderEntity> orderEntities = orderRepository.getAllOrdersByTickerAndDateAndStatus(ticker, date, OrderStatus.ACTIVE);
+        if (orderEntities.isEmpty() && date.isBefore(LocalDate.now())) {
+            // the raw orders of archived days are gone, their active orders are read back from the archive
+            orderEntities = orderArchiver.findOrders(ticker, date);
+        }
 
         if (orderEntities.isEmpty()) {
             log.error("No orders found for ticker: {} on date: {}", ticker, date);
@@ -92,61 +477,112 @@ public class OrderService {
         } else {
             List<OrderEntity> buyOrders = orderEntities
                     .stream()
-                    .filter(orderEntity -> orderEntity.getOrderSide().equals("BUY"))
+                    .filter(orderEntity -> orderEntity.getOrderSide() == OrderSide.BUY)
                     .toList();
 
             List<OrderEntity> sellOrders = orderEntities
                     .stream()
-                    .filter(orderEntity -> orderEntity.getOrderSide().equals("SELL"))
+                    .filter(orderEntity -> orderEntity.getOrderSide() == OrderSide.SELL)
                     .toList();
 
-            return buildSummary(ticker, date, buyOrders, sellOrders);
+            return buildSummary(ticker, date, reportingCurrency, buyOrders, sellOrders, priceIn(orderEntities, reportingCurrency));
+        }
+    }
+
+    private SummaryResponse getCurrentDaySummary(String ticker, LocalDate date, String reportingCurrency) {
+        SideAggregate buyAggregate = readAggregate(ticker, OrderSide.BUY, date);
+        SideAggregate sellAggregate = readAggregate(ticker, OrderSide.SELL, date);
+        if (buyAggregate.isEmpty() && sellAggregate.isEmpty()) {
+            log.error("No orders found for ticker: {} on date: {}", ticker, date);
+            throw new TickerNotFoundException("The requested ticker could not be found for the given date");
+        }
+
+        FxRateTable rates = fxRateService.current();
+        PriceSummary buy = buyAggregate.summarize(rates, reportingCurrency);
+        PriceSummary sell = sellAggregate.summarize(rates, reportingCurrency);
+        return SummaryResponse.builder()
+                .ticker(ticker)
+                .date(date)
+                .currency(reportingCurrency)
+                .buySummary(BuySummary.builder().count(buy.count()).min(buy.min()).avg(buy.avg()).max(buy.max()).build())
+                .sellSummary(SellSummary.builder().count(sell.count()).min(sell.min()).avg(sell.avg()).max(sell.max()).build())
+                .build();
+    }
+
+    /**
+     * Price of an order in the reporting currency, all orders are checked up front so one snapshot of rates serves the whole summary
+     */
+    private ToDoubleFunction<OrderEntity> priceIn(List<OrderEntity> orders, String reportingCurrency) {
+        if (reportingCurrency == null) {
+            return OrderEntity::getPrice;
         }
+        FxRateTable rates = fxRateService.current();
+        for (OrderEntity order : orders) {
+            if (!rates.canConvert(order.getCurrency(), reportingCurrency)) {
+                log.error("No exchange rate from {} to {}", order.getCurrency(), reportingCurrency);
+                throw new UnsupportedCurrencyException("There is no exchange rate from " + order.getCurrency() + " to " + reportingCurrency);
+            }
+        }
+        return order -> rates.convert(order.getPrice(), order.getCurrency(), reportingCurrency);
     }
 
-    private SummaryResponse buildSummary(String ticker, LocalDate date, List<OrderEntity> buyOrders, List<OrderEntity> sellOrders) {
+    private SummaryResponse buildSummary(String ticker, LocalDate date, String reportingCurrency, List<OrderEntity> buyOrders,
+                                         List<OrderEntity> sellOrders, ToDoubleFunction<OrderEntity> price) {
         return SummaryResponse.builder()
                 .ticker(ticker)
                 .date(date)
-                .buySummary(buildBuySummary(buyOrders))
-                .sellSummary(buildSellSummary(sellOrders))
+                .currency(reportingCurrency)
+                .buySummary(buildBuySummary(buyOrders, price))
+                .sellSummary(buildSellSummary(sellOrders, price))
                 .build();
     }
 
-    private BuySummary buildBuySummary(List<OrderEntity> buyOrders) {
+    private BuySummary buildBuySummary(List<OrderEntity> buyOrders, ToDoubleFunction<OrderEntity> price) {
         return BuySummary.builder()
                 .count(buyOrders.size())
-                .min(calculateMin(buyOrders))
-                .avg(calculateAvg(buyOrders))
-                .max(calculateMax(buyOrders)).build();
+                .min(calculateMin(buyOrders, price))
+                .avg(calculateAvg(buyOrders, price))
+                .max(calculateMax(buyOrders, price)).build();
     }
 
-    private SellSummary buildSellSummary(List<OrderEntity> sellOrders) {
+    private SellSummary buildSellSummary(List<OrderEntity> sellOrders, ToDoubleFunction<OrderEntity> price) {
         return SellSummary.builder()
                 .count(sellOrders.size())
-                .min(calculateMin(sellOrders))
-                .avg(calculateAvg(sellOrders))
-                .max(calculateMax(sellOrders))
+                .min(calculateMin(sellOrders, price))
+                .avg(calculateAvg(sellOrders, price))
+                .max(calculateMax(sellOrders, price))
                 .build();
     }
 
     double calculateMin(List<OrderEntity> orders) {
+        return calculateMin(orders, OrderEntity::getPrice);
+    }
+
+    double calculateAvg(List<OrderEntity> orders) {
+        return calculateAvg(orders, OrderEntity::getPrice);
+    }
+
+    double calculateMax(List<OrderEntity> orders) {
+        return calculateMax(orders, OrderEntity::getPrice);
+    }
+
+    private double calculateMin(List<OrderEntity> orders, ToDoubleFunction<OrderEntity> price) {
         return orders.stream()
-                .mapToDouble(OrderEntity::getPrice)
+                .mapToDouble(price)
                 .min()
                 .orElse(0);
     }
 
-    double calculateAvg(List<OrderEntity> orders) {
+    private double calculateAvg(List<OrderEntity> orders, ToDoubleFunction<OrderEntity> price) {
         return orders.stream()
-                .mapToDouble(OrderEntity::getPrice)
+                .mapToDouble(price)
                 .average()
                 .orElse(0);
     }
 
-    double calculateMax(List<OrderEntity> orders) {
+    private double calculateMax(List<OrderEntity> orders, ToDoubleFunction<OrderEntity> price) {
         return orders.stream()
-                .mapToDouble(OrderEntity::getPrice)
+                .mapToDouble(price)
                 .max()
                 .orElse(0);
     }
@@ -0,0 +1,74 @@
+package com.example.orderbook.service.aggregate;
+
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory aggregates of the active orders per ticker, order side and day
+ * An aggregate is loaded from the database the first time it is needed and is updated on every
+ * save, cancellation and amendment after that, so the day is never scanned again
+ * Writers load the aggregate before changing the database and apply the change to that aggregate after it,
+ * so every change is either read by the load or applied to what was loaded, never both
+ */
+@Slf4j
+@Component
+public class OrderAggregates {
+
+    private final ConcurrentHashMap<Key, SideAggregate> aggregates = new ConcurrentHashMap<>();
+
+    /**
+     * The aggregate to apply a change to, kept even when the day has no orders yet
+     *
+     * @param loader reads the active orders when the aggregate is not loaded yet
+     */
+    public SideAggregate forSide(String ticker, OrderSide orderSide, LocalDate date, Supplier<List<OrderEntity>> loader) {
+        return aggregates.computeIfAbsent(new Key(ticker, orderSide, date), key -> new SideAggregate(loader.get()));
+    }
+
+    /**
+     * The aggregate to read, days without orders are not kept so queries for unknown tickers do not fill the map
+     * A writer loads after such a read, so it still sees every change before its own
+     *
+     * @param loader reads the active orders when the aggregate is not loaded yet
+     */
+    public SideAggregate lookup(String ticker, OrderSide orderSide, LocalDate date, Supplier<List<OrderEntity>> loader) {
+        SideAggregate aggregate = aggregates.computeIfAbsent(new Key(ticker, orderSide, date), key -> {
+            List<OrderEntity> orders = loader.get();
+            // returning null leaves the key unmapped
+            return orders.isEmpty() ? null : new SideAggregate(orders);
+        });
+        return aggregate != null ? aggregate : new SideAggregate(List.of());
+    }
+
+    public int size() {
+        return aggregates.size();
+    }
+
+    /**
+     * Forget every aggregate, used when tickers may have moved to another instance
+     */
+    public void clear() {
+        aggregates.clear();
+    }
+
+    /**
+     * Closed days are answered from the rollup, only the current day is kept in memory
+     */
+    @Scheduled(cron = "0 0 * * * *")
+    public void evictClosedDays() {
+        LocalDate today = LocalDate.now();
+        aggregates.keySet().removeIf(key -> key.date().isBefore(today));
+        log.debug("{} order aggregates in memory", aggregates.size());
+    }
+
+    private record Key(String ticker, OrderSide orderSide, LocalDate date) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.orderbook.service.aggregate;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Count, sum and the number of orders per price for one currency
+ * Sum and count can be decremented directly, the sorted price levels keep min and max correct when
+ * the order holding the lowest or highest price goes away
+ * Not thread safe, {@link SideAggregate} guards access
+ */
+public class PriceLevels {
+
+    private final TreeMap<Double, Integer> levels = new TreeMap<>();
+    private long count;
+    private double sum;
+
+    public void add(double price) {
+        levels.merge(price, 1, Integer::sum);
+        count++;
+        sum += price;
+    }
+
+    /**
+     * @return false when no order was counted at this price
+     */
+    public boolean remove(double price) {
+        Integer orders = levels.get(price);
+        if (orders == null) {
+            return false;
+        }
+        if (orders == 1) {
+            levels.remove(price);
+        } else {
+            levels.put(price, orders - 1);
+        }
+        count--;
+        // reset instead of subtracting the last price, so rounding errors do not outlive the orders
+        sum = count == 0 ? 0 : sum - price;
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double sum() {
+        return sum;
+    }
+
+    public double min() {
+        Map.Entry<Double, Integer> lowest = levels.firstEntry();
+        return lowest == null ? 0 : lowest.getKey();
+    }
+
+    public double max() {
+        Map.Entry<Double, Integer> highest = levels.lastEntry();
+        return highest == null ? 0 : highest.getKey();
+    }
+
+    public double avg() {
+        return count == 0 ? 0 : sum / count;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.orderbook.service.aggregate;
+
+public record PriceSummary(int count, double min, double avg, double max) {
+
+    public static final PriceSummary EMPTY = new PriceSummary(0, 0, 0, 0);
+}
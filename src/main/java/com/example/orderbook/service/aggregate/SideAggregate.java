@@ -0,0 +1,94 @@
+package com.example.orderbook.service.aggregate;
+
+import com.example.orderbook.api.exceptionhandling.UnsupportedCurrencyException;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.fx.FxRateTable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregate over the active orders of one ticker, order side and day, kept per currency
+ * Conversion is linear, so converting the per-currency sums, mins and maxes gives the same result
+ * as converting every order
+ */
+public class SideAggregate {
+
+    private final Map<String, PriceLevels> byCurrency = new HashMap<>();
+
+    public SideAggregate(List<OrderEntity> orders) {
+        for (OrderEntity order : orders) {
+            add(order.getCurrency(), order.getPrice());
+        }
+    }
+
+    public synchronized void add(String currency, double price) {
+        byCurrency.computeIfAbsent(currency, key -> new PriceLevels()).add(price);
+    }
+
+    public synchronized void remove(String currency, double price) {
+        PriceLevels levels = byCurrency.get(currency);
+        if (levels != null && levels.remove(price) && levels.isEmpty()) {
+            byCurrency.remove(currency);
+        }
+    }
+
+    public synchronized void replace(String currency, double previousPrice, double price) {
+        PriceLevels levels = byCurrency.get(currency);
+        if (levels != null && levels.remove(previousPrice)) {
+            levels.add(price);
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return byCurrency.isEmpty();
+    }
+
+    /**
+     * Average price in the given currency, orders in a currency without an exchange rate are left out
+     */
+    public synchronized double average(FxRateTable rates, String currency) {
+        long count = 0;
+        double sum = 0;
+        for (Map.Entry<String, PriceLevels> entry : byCurrency.entrySet()) {
+            if (rates.canConvert(entry.getKey(), currency)) {
+                count += entry.getValue().count();
+                sum += rates.convert(entry.getValue().sum(), entry.getKey(), currency);
+            }
+        }
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Count, min, average and max over all currencies
+     *
+     * @param reportingCurrency the currency to report prices in, or null to report prices as they were entered
+     */
+    public synchronized PriceSummary summarize(FxRateTable rates, String reportingCurrency) {
+        if (byCurrency.isEmpty()) {
+            return PriceSummary.EMPTY;
+        }
+        long count = 0;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (Map.Entry<String, PriceLevels> entry : byCurrency.entrySet()) {
+            String currency = entry.getKey();
+            PriceLevels levels = entry.getValue();
+            count += levels.count();
+            if (reportingCurrency == null) {
+                sum += levels.sum();
+                min = Math.min(min, levels.min());
+                max = Math.max(max, levels.max());
+            } else if (rates.canConvert(currency, reportingCurrency)) {
+                sum += rates.convert(levels.sum(), currency, reportingCurrency);
+                min = Math.min(min, rates.convert(levels.min(), currency, reportingCurrency));
+                max = Math.max(max, rates.convert(levels.max(), currency, reportingCurrency));
+            } else {
+                throw new UnsupportedCurrencyException("There is no exchange rate from " + currency + " to " + reportingCurrency);
+            }
+        }
+        return new PriceSummary((int) count, min, sum / count, max);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.orderbook.service.book;
+
+import com.example.orderbook.service.entity.BookLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable copy of the best levels of a book in one currency, published after every change
+ */
+public final class BookSnapshot {
+
+    static final BookSnapshot EMPTY = new BookSnapshot(Side.EMPTY, Side.EMPTY);
+
+    /**
+     * Prices are kept as a whole number of ticks of 1/10000, enough for any currency's minor unit
+     */
+    static final double TICKS_PER_UNIT = 10_000;
+
+    private final Side bids;
+    private final Side asks;
+
+    BookSnapshot(Side bids, Side asks) {
+        this.bids = bids;
+        this.asks = asks;
+    }
+
+    static long toTicks(double price) {
+        return Math.round(price * TICKS_PER_UNIT);
+    }
+
+    public List<BookLevel> bids(int depth) {
+        return bids.levels(depth);
+    }
+
+    public List<BookLevel> asks(int depth) {
+        return asks.levels(depth);
+    }
+
+    public boolean isEmpty() {
+        return bids.ticks.length == 0 && asks.ticks.length == 0;
+    }
+
+    record Side(long[] ticks, long[] volumes, int[] orders) {
+
+        static final Side EMPTY = new Side(new long[0], new long[0], new int[0]);
+
+        List<BookLevel> levels(int depth) {
+            int levels = Math.min(depth, ticks.length);
+            List<BookLevel> result = new ArrayList<>(levels);
+            for (int i = 0; i < levels; i++) {
+                result.add(BookLevel.builder()
+                        .price(ticks[i] / TICKS_PER_UNIT)
+                        .volume(volumes[i])
+                        .orders(orders[i])
+                        .build());
+            }
+            return result;
+        }
+    }
+}
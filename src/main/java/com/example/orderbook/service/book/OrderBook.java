@@ -0,0 +1,87 @@
+package com.example.orderbook.service.book;
+
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Price levels of the active orders of one ticker and day, one ladder per order side and currency
+ * Writers update the ladders under the book's lock and publish a new immutable snapshot,
+ * readers only read the published snapshots and never wait for a writer
+ */
+public final class OrderBook {
+
+    private final int maxDepth;
+    private final Map<String, PriceLadder> bids = new HashMap<>();
+    private final Map<String, PriceLadder> asks = new HashMap<>();
+    private volatile Map<String, BookSnapshot> snapshots = Map.of();
+
+    OrderBook(List<OrderEntity> orders, int maxDepth) {
+        this.maxDepth = maxDepth;
+        for (OrderEntity order : orders) {
+            ladder(order.getOrderSide(), order.getCurrency()).add(BookSnapshot.toTicks(order.getPrice()), order.getVolume());
+        }
+        Set<String> currencies = new HashSet<>(bids.keySet());
+        currencies.addAll(asks.keySet());
+        Map<String, BookSnapshot> loaded = new HashMap<>();
+        for (String currency : currencies) {
+            loaded.put(currency, snapshot(currency));
+        }
+        snapshots = Map.copyOf(loaded);
+    }
+
+    /**
+     * @return the best levels per currency, empty when the ticker has no active orders
+     */
+    public Map<String, BookSnapshot> snapshots() {
+        return snapshots;
+    }
+
+    public synchronized void add(OrderSide orderSide, String currency, double price, long volume) {
+        ladder(orderSide, currency).add(BookSnapshot.toTicks(price), volume);
+        publish(currency);
+    }
+
+    public synchronized void remove(OrderSide orderSide, String currency, double price, long volume) {
+        if (ladder(orderSide, currency).remove(BookSnapshot.toTicks(price), volume)) {
+            publish(currency);
+        }
+    }
+
+    public synchronized void replace(OrderSide orderSide, String currency, double previousPrice, long previousVolume, double price, long volume) {
+        PriceLadder ladder = ladder(orderSide, currency);
+        if (ladder.remove(BookSnapshot.toTicks(previousPrice), previousVolume)) {
+            ladder.add(BookSnapshot.toTicks(price), volume);
+            publish(currency);
+        }
+    }
+
+    private PriceLadder ladder(OrderSide orderSide, String currency) {
+        Map<String, PriceLadder> ladders = orderSide == OrderSide.BUY ? bids : asks;
+        return ladders.computeIfAbsent(currency, key -> new PriceLadder());
+    }
+
+    private BookSnapshot snapshot(String currency) {
+        PriceLadder bid = bids.get(currency);
+        PriceLadder ask = asks.get(currency);
+        return new BookSnapshot(
+                bid == null ? BookSnapshot.Side.EMPTY : bid.best(maxDepth, true),
+                ask == null ? BookSnapshot.Side.EMPTY : ask.best(maxDepth, false));
+    }
+
+    private void publish(String currency) {
+        Map<String, BookSnapshot> next = new HashMap<>(snapshots);
+        BookSnapshot snapshot = snapshot(currency);
+        if (snapshot.isEmpty()) {
+            next.remove(currency);
+        } else {
+            next.put(currency, snapshot);
+        }
+        snapshots = Map.copyOf(next);
+    }
+}
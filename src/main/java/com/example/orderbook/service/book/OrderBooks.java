@@ -0,0 +1,87 @@
+package com.example.orderbook.service.book;
+
+import com.example.orderbook.service.entity.OrderEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * In-memory order books of the current day per ticker
+ * Like {@link com.example.orderbook.service.aggregate.OrderAggregates} a book is loaded from the database once,
+ * writers load it before changing the database and apply the change to that book after it.
+ */
+@Slf4j
+@Component
+public class OrderBooks {
+
+    private final int maxDepth;
+    private final ConcurrentHashMap<Key, OrderBook> books = new ConcurrentHashMap<>();
+
+    public OrderBooks(@Value("${orderbook.book.max-depth:50}") int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * The number of levels per side kept in the published snapshots
+     */
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * The book to apply a change to, kept even when the ticker has no orders yet
+     *
+     * @param loader reads the active orders of the ticker when the book is not loaded yet
+     */
+    public OrderBook forTicker(String ticker, LocalDate date, Supplier<List<OrderEntity>> loader) {
+        return books.computeIfAbsent(new Key(ticker, date), key -> new OrderBook(loader.get(), maxDepth));
+    }
+
+    /**
+     * The book to read, tickers without orders are not kept
+     *
+     * @param loader reads the active orders of the ticker when the book is not loaded yet
+     */
+    public OrderBook lookup(String ticker, LocalDate date, Supplier<List<OrderEntity>> loader) {
+        OrderBook book = books.computeIfAbsent(new Key(ticker, date), key -> {
+            List<OrderEntity> orders = loader.get();
+            // returning null leaves the key unmapped
+            return orders.isEmpty() ? null : new OrderBook(orders, maxDepth);
+        });
+        return book != null ? book : new OrderBook(List.of(), maxDepth);
+    }
+
+    /**
+     * A book that is not kept, for tickers whose changes this instance does not see
+     */
+    public OrderBook load(Supplier<List<OrderEntity>> loader) {
+        return new OrderBook(loader.get(), maxDepth);
+    }
+
+    public int size() {
+        return books.size();
+    }
+
+    /**
+     * Forget every book, used when tickers may have moved to another instance
+     */
+    public void clear() {
+        books.clear();
+    }
+
+    @Scheduled(cron = "0 0 * * * *")
+    public void evictClosedDays() {
+        LocalDate today = LocalDate.now();
+        books.keySet().removeIf(key -> key.date().isBefore(today));
+        log.debug("{} order books in memory", books.size());
+    }
+
+    private record Key(String ticker, LocalDate date) {
+    }
+}
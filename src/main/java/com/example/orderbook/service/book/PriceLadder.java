@@ -0,0 +1,80 @@
+package com.example.orderbook.service.book;
+
+import java.util.Arrays;
+
+/**
+ * Volume and number of orders per price level for one side of a book
+ * Levels are kept in parallel primitive arrays sorted by price tick, so a level is found with a binary search
+ * and there is no boxing or node per level
+ * Not thread safe, {@link OrderBook} guards access
+ */
+final class PriceLadder {
+
+    private long[] ticks = new long[16];
+    private long[] volumes = new long[16];
+    private int[] orders = new int[16];
+    private int size;
+
+    void add(long tick, long volume) {
+        int index = Arrays.binarySearch(ticks, 0, size, tick);
+        if (index >= 0) {
+            volumes[index] += volume;
+            orders[index]++;
+            return;
+        }
+        index = -index - 1;
+        if (size == ticks.length) {
+            ticks = Arrays.copyOf(ticks, size * 2);
+            volumes = Arrays.copyOf(volumes, size * 2);
+            orders = Arrays.copyOf(orders, size * 2);
+        }
+        System.arraycopy(ticks, index, ticks, index + 1, size - index);
+        System.arraycopy(volumes, index, volumes, index + 1, size - index);
+        System.arraycopy(orders, index, orders, index + 1, size - index);
+        ticks[index] = tick;
+        volumes[index] = volume;
+        orders[index] = 1;
+        size++;
+    }
+
+    /**
+     * @return false when there is no order at this price
+     */
+    boolean remove(long tick, long volume) {
+        int index = Arrays.binarySearch(ticks, 0, size, tick);
+        if (index < 0) {
+            return false;
+        }
+        if (orders[index] > 1) {
+            volumes[index] -= volume;
+            orders[index]--;
+            return true;
+        }
+        System.arraycopy(ticks, index + 1, ticks, index, size - index - 1);
+        System.arraycopy(volumes, index + 1, volumes, index, size - index - 1);
+        System.arraycopy(orders, index + 1, orders, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copy of the best levels, the highest prices first for bids and the lowest prices first for asks
+     */
+    BookSnapshot.Side best(int depth, boolean highestFirst) {
+        int levels = Math.min(depth, size);
+        long[] bestTicks = new long[levels];
+        long[] bestVolumes = new long[levels];
+        int[] bestOrders = new int[levels];
+        for (int i = 0; i < levels; i++) {
+            int index = highestFirst ? size - 1 - i : i;
+            bestTicks[i] = ticks[index];
+            bestVolumes[i] = volumes[index];
+            bestOrders[i] = orders[index];
+        }
+        return new BookSnapshot.Side(bestTicks, bestVolumes, bestOrders);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.orderbook.service.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookLevel {
+    @Schema(description = "Price of the level", example = "235.5")
+    Double price;
+
+    @Schema(description = "Total volume of the active orders at this price", example = "1200")
+    Long volume;
+
+    @Schema(description = "Number of active orders at this price", example = "4")
+    Integer orders;
+}
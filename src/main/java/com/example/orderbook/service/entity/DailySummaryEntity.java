@@ -0,0 +1,45 @@
+package com.example.orderbook.service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Aggregated prices for one ticker and order side on a closed trading day.
+ * Rows are written by the nightly rollup, afterwards only orders approved in screening are added to them.
+ */
+@Getter
+@Setter
+@Builder
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(DailySummaryId.class)
+@Table(name = "daily_summary")
+public class DailySummaryEntity {
+    @Id
+    @Column(name = "ticker", nullable = false)
+    String ticker;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_side", nullable = false)
+    OrderSide orderSide;
+
+    @Id
+    @Column(name = "date", nullable = false)
+    LocalDate date;
+
+    @Column(name = "order_count", nullable = false)
+    Long orderCount;
+
+    @Column(name = "min_price", nullable = false)
+    Double minPrice;
+
+    @Column(name = "max_price", nullable = false)
+    Double maxPrice;
+
+    @Column(name = "sum_price", nullable = false)
+    Double sumPrice;
+}
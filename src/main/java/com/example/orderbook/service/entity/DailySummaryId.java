@@ -0,0 +1,19 @@
+package com.example.orderbook.service.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+public class DailySummaryId implements Serializable {
+    private String ticker;
+    private OrderSide orderSide;
+    private LocalDate date;
+}
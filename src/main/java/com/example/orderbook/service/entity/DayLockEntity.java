@@ -0,0 +1,25 @@
+package com.example.orderbook.service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * The row a closed trading day is locked by while its orders or summaries change.
+ * Once the day is archived its orders can no longer change.
+ */
+@Getter
+@Setter
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "day_lock")
+public class DayLockEntity {
+    @Id
+    @Column(name = "date", nullable = false)
+    LocalDate date;
+
+    @Column(name = "archived", nullable = false)
+    boolean archived;
+}
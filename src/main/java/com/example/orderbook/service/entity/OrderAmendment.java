@@ -0,0 +1,18 @@
+package com.example.orderbook.service.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderAmendment {
+
+    @Schema(description = "New volume of the order, left unchanged when missing", example = "50", minimum = "1")
+    Long volume;
+
+    @Schema(description = "New price per unit, left unchanged when missing", example = "240", minimum = "0")
+    Double price;
+}
@@ -0,0 +1,29 @@
+package com.example.orderbook.service.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderBookResponse {
+    @Schema(description = "Ticker of the book", example = "SAVE")
+    String ticker;
+
+    @Schema(description = "The current day", example = "2024-10-10")
+    LocalDate date;
+
+    @Schema(description = "Currency of the prices in the book", example = "SEK")
+    String currency;
+
+    @Schema(description = "Buy orders per price level, best (highest) price first")
+    List<BookLevel> bids;
+
+    @Schema(description = "Sell orders per price level, best (lowest) price first")
+    List<BookLevel> asks;
+}
@@ -1,8 +1,9 @@
 package com.example.orderbook.service.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.*;
 import lombok.*;
 
 import java.time.LocalDate;
@@ -23,32 +24,33 @@ public class OrderEntity {
     LocalDate date;
 
     @Column(name = "ticker", nullable = false)
-    @Schema(description = "Ticker", example = "SAVE")
-    @NotNull(message = "An order must contain a ticker")
-    @Size(min = 1, max = 4, message = "Ticker must be between 1 and 4 characters")
+    @Schema(description = "Ticker", example = "SAVE", requiredMode = Schema.RequiredMode.REQUIRED, minLength = 1, maxLength = 4)
     String ticker;
 
     @Column(name = "order_side", nullable = false)
-    @Schema(description = "Order side (buy or sell)", example = "BUY")
-    @NotNull(message = "An order must contain an order side")
-    @Pattern(regexp = "^(BUY|SELL)$", message = "Order side must be BUY or SELL")
-    String orderSide;
+    @Enumerated(EnumType.STRING)
+    @Schema(description = "Order side (buy or sell)", example = "BUY", requiredMode = Schema.RequiredMode.REQUIRED)
+    OrderSide orderSide;
 
     @Column(name = "volume", nullable = false)
-    @Schema(description = "Volume of the order", example = "100")
-    @NotNull(message = "An order must specify volume")
-    @Positive(message = "Volume must be positive")
+    @Schema(description = "Volume of the order", example = "100", requiredMode = Schema.RequiredMode.REQUIRED, minimum = "1")
     Long volume;
 
     @Column(name = "price", nullable = false)
-    @Schema(description = "Price per unit", example = "235")
-    @NotNull(message = "An order must contain price information")
-    @Min(value = 0, message = "Price must be greater than or equal to 0")
+    @Schema(description = "Price per unit", example = "235", requiredMode = Schema.RequiredMode.REQUIRED, minimum = "0")
     Double price;
 
     @Column(name = "currency", nullable = false)
-    @Schema(description = "Currency code", example = "SEK")
-    @NotNull(message = "An order must contain currency")
-    @Size(min = 1, max = 3, message = "Currency must be between 1 and 3 characters")
+    @Schema(description = "Currency code", example = "SEK", requiredMode = Schema.RequiredMode.REQUIRED, minLength = 1, maxLength = 3)
     String currency;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Whether the order is active or cancelled", example = "ACTIVE", accessMode = Schema.AccessMode.READ_ONLY)
+    OrderStatus status;
+
+    @JsonIgnore
+    @Column(name = "idempotency_key")
+    String idempotencyKey;
 }
@@ -0,0 +1,61 @@
+package com.example.orderbook.service.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One page of orders in column form, the n-th order is made of the n-th element of every array
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderListResponse {
+    @Schema(description = "Ticker of the orders", example = "SAVE")
+    String ticker;
+
+    @Schema(description = "Pass as cursor to get the next page, absent on the last page", example = "2024-10-10:1042")
+    String nextCursor;
+
+    @Schema(description = "Order ids")
+    long[] ids;
+
+    @Schema(description = "Order dates")
+    LocalDate[] dates;
+
+    @Schema(description = "Order sides")
+    OrderSide[] orderSides;
+
+    @Schema(description = "Order volumes")
+    long[] volumes;
+
+    @Schema(description = "Order prices")
+    double[] prices;
+
+    @Schema(description = "Order currencies")
+    String[] currencies;
+
+    @Schema(description = "Order statuses")
+    OrderStatus[] statuses;
+
+    public static OrderListResponse of(String ticker, List<OrderEntity> orders, String nextCursor) {
+        int size = orders.size();
+        OrderListResponse page = new OrderListResponse(ticker, nextCursor, new long[size], new LocalDate[size],
+                new OrderSide[size], new long[size], new double[size], new String[size], new OrderStatus[size]);
+        for (int i = 0; i < size; i++) {
+            OrderEntity order = orders.get(i);
+            page.ids[i] = order.getId();
+            page.dates[i] = order.getDate();
+            page.orderSides[i] = order.getOrderSide();
+            page.volumes[i] = order.getVolume();
+            page.prices[i] = order.getPrice();
+            page.currencies[i] = order.getCurrency();
+            page.statuses[i] = order.getStatus();
+        }
+        return page;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.orderbook.service.entity;
+
+public enum OrderStatus {
+    ACTIVE,
+    CANCELLED
+}
@@ -0,0 +1,16 @@
+package com.example.orderbook.service.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScreeningDecision {
+    @Schema(description = "Ids of the screened orders to decide on", example = "[1, 2, 3]", requiredMode = Schema.RequiredMode.REQUIRED)
+    List<Long> ids;
+}
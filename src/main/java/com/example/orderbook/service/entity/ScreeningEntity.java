@@ -0,0 +1,83 @@
+package com.example.orderbook.service.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * An order that was rejected as a suspicious deviation and waits for a decision in screening
+ * An approved order is added to the order book on the day it was originally placed.
+ */
+@Getter
+@Setter
+@Builder
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "screening_queue")
+public class ScreeningEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "received_at", nullable = false)
+    @Schema(description = "When the order was rejected", example = "2024-10-10T10:15:30")
+    LocalDateTime receivedAt;
+
+    @Column(name = "date", nullable = false)
+    @Schema(description = "The day the order was placed", example = "2024-10-10")
+    LocalDate date;
+
+    @Column(name = "ticker", nullable = false)
+    @Schema(description = "Ticker", example = "SAVE")
+    String ticker;
+
+    @Column(name = "order_side", nullable = false)
+    @Enumerated(EnumType.STRING)
+    @Schema(description = "Order side (buy or sell)", example = "BUY")
+    OrderSide orderSide;
+
+    @Column(name = "volume", nullable = false)
+    @Schema(description = "Volume of the order", example = "100")
+    Long volume;
+
+    @Column(name = "price", nullable = false)
+    @Schema(description = "Price per unit", example = "300")
+    Double price;
+
+    @Column(name = "currency", nullable = false)
+    @Schema(description = "Currency code", example = "SEK")
+    String currency;
+
+    @Column(name = "daily_average", nullable = false)
+    @Schema(description = "The daily average price in the order's currency the price was compared with", example = "235")
+    Double dailyAverage;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    @Schema(description = "Whether the order still waits for a decision, was approved or was rejected", example = "PENDING")
+    ScreeningStatus status;
+
+    @JsonIgnore
+    @Column(name = "idempotency_key")
+    String idempotencyKey;
+
+    @Column(name = "order_id")
+    @Schema(description = "Id of the order created on approval", example = "1042")
+    Long orderId;
+
+    public OrderEntity toOrder() {
+        return OrderEntity.builder()
+                .date(date)
+                .ticker(ticker)
+                .orderSide(orderSide)
+                .volume(volume)
+                .price(price)
+                .currency(currency)
+                .build();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.orderbook.service.entity;
+
+public enum ScreeningStatus {
+    PENDING,
+    APPROVED,
+    REJECTED
+}
@@ -1,5 +1,6 @@
 package com.example.orderbook.service.entity;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
@@ -8,6 +9,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Getter
 @Setter
@@ -20,9 +22,53 @@ public class SummaryResponse {
     @Schema(description = "Date to summarize orderEntities for", example = "2024-10-10")
     LocalDate date;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Currency all prices are reported in, absent when prices are reported as entered", example = "SEK")
+    String currency;
+
     @JsonProperty("buy")
     BuySummary buySummary;
 
     @JsonProperty("sell")
     SellSummary sellSummary;
-}
+
+    /**
+     * Build a summary from pre-aggregated rows, sides without a row are reported with zero orders
+     *
+     * @param ticker         the summarized stock
+     * @param date           the summarized day
+     * @param dailySummaries at most one row per order side
+     * @return SummaryResponse containing the calculated values
+     */
+    public static SummaryResponse fromDailySummaries(String ticker, LocalDate date, List<DailySummaryEntity> dailySummaries) {
+        BuySummary buySummary = BuySummary.builder().count(0).min(0.0).avg(0.0).max(0.0).build();
+        SellSummary sellSummary = SellSummary.builder().count(0).min(0.0).avg(0.0).max(0.0).build();
+
+        for (DailySummaryEntity dailySummary : dailySummaries) {
+            int count = dailySummary.getOrderCount().intValue();
+            double avg = dailySummary.getSumPrice() / count;
+            if (dailySummary.getOrderSide() == OrderSide.BUY) {
+                buySummary = BuySummary.builder()
+                        .count(count)
+                        .min(dailySummary.getMinPrice())
+                        .avg(avg)
+                        .max(dailySummary.getMaxPrice())
+                        .build();
+            } else if (dailySummary.getOrderSide() == OrderSide.SELL) {
+                sellSummary = SellSummary.builder()
+                        .count(count)
+                        .min(dailySummary.getMinPrice())
+                        .avg(avg)
+                        .max(dailySummary.getMaxPrice())
+                        .build();
+            }
+        }
+
+        return SummaryResponse.builder()
+                .ticker(ticker)
+                .date(date)
+                .buySummary(buySummary)
+                .sellSummary(sellSummary)
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.example.orderbook.service.fx;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the current exchange rate table and reloads it from a local file
+ * <p>
+ * The rate file has one {@code CURRENCY=rate} line per currency, where the rate is the price of one unit
+ * of the currency in the base currency. Lines starting with # are ignored. A reload builds a complete new
+ * table and publishes it with a single volatile write, readers never lock and always see a whole snapshot.
+ */
+@Service
+@Slf4j
+public class FxRateService {
+
+    private final String ratesFile;
+    private final String baseCurrency;
+    private volatile FxRateTable current;
+
+    public FxRateService(@Value("${orderbook.fx.rates-file:}") String ratesFile,
+                         @Value("${orderbook.fx.base-currency:USD}") String baseCurrency) {
+        this.ratesFile = ratesFile;
+        this.baseCurrency = baseCurrency;
+        this.current = ratesFile.isBlank() ? FxRateTable.empty() : load(Path.of(ratesFile));
+    }
+
+    public FxRateTable current() {
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${orderbook.fx.refresh-interval:PT5M}", initialDelayString = "${orderbook.fx.refresh-interval:PT5M}")
+    public void refresh() {
+        if (ratesFile.isBlank()) {
+            return;
+        }
+        try {
+            current = load(Path.of(ratesFile));
+        } catch (RuntimeException e) {
+            // keep serving the previous rates rather than failing conversions
+            log.error("Could not reload exchange rates from {}", ratesFile, e);
+        }
+    }
+
+    FxRateTable load(Path path) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read exchange rates from " + path, e);
+        }
+
+        Map<String, Double> rates = new HashMap<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            int separator = trimmed.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid exchange rate line: " + line);
+            }
+            rates.put(trimmed.substring(0, separator).trim(), Double.parseDouble(trimmed.substring(separator + 1).trim()));
+        }
+        log.info("Loaded {} exchange rates against {}", rates.size(), baseCurrency);
+        return FxRateTable.of(baseCurrency, rates);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.orderbook.service.fx;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of exchange rates against a base currency
+ * <p>
+ * Currency codes of up to three letters are packed into an array index, so a conversion
+ * is two array reads with no hashing and no allocation.
+ */
+public final class FxRateTable {
+
+    private static final int SLOTS = 1 << 15;
+    private static final FxRateTable EMPTY = new FxRateTable(null);
+
+    // units of the base currency for one unit of the currency in the slot, NaN when unknown
+    private final double[] ratesToBase;
+
+    private FxRateTable(double[] ratesToBase) {
+        this.ratesToBase = ratesToBase;
+    }
+
+    public static FxRateTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param baseCurrency the currency all rates are quoted in
+     * @param ratesToBase  units of the base currency for one unit of each currency
+     */
+    public static FxRateTable of(String baseCurrency, Map<String, Double> ratesToBase) {
+        double[] rates = new double[SLOTS];
+        Arrays.fill(rates, Double.NaN);
+        rates[requireSlot(baseCurrency)] = 1.0;
+        for (Map.Entry<String, Double> rate : ratesToBase.entrySet()) {
+            if (!(rate.getValue() > 0) || Double.isInfinite(rate.getValue())) {
+                throw new IllegalArgumentException("Invalid exchange rate for " + rate.getKey() + ": " + rate.getValue());
+            }
+            rates[requireSlot(rate.getKey())] = rate.getValue();
+        }
+        return new FxRateTable(rates);
+    }
+
+    public boolean canConvert(String from, String to) {
+        return from.equalsIgnoreCase(to) || (!Double.isNaN(rateToBase(from)) && !Double.isNaN(rateToBase(to)));
+    }
+
+    /**
+     * Convert a price between two currencies
+     *
+     * @return the converted price, NaN when a rate is missing
+     */
+    public double convert(double price, String from, String to) {
+        if (from.equalsIgnoreCase(to)) {
+            return price;
+        }
+        return price * rateToBase(from) / rateToBase(to);
+    }
+
+    private double rateToBase(String currency) {
+        int slot = slot(currency);
+        return slot < 0 || ratesToBase == null ? Double.NaN : ratesToBase[slot];
+    }
+
+    private static int requireSlot(String currency) {
+        int slot = slot(currency);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Invalid currency code: " + currency);
+        }
+        return slot;
+    }
+
+    private static int slot(String currency) {
+        int length = currency.length();
+        if (length == 0 || length > 3) {
+            return -1;
+        }
+        int slot = 0;
+        for (int i = 0; i < length; i++) {
+            char c = currency.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                c -= 'a' - 'A';
+            }
+            if (c < 'A' || c > 'Z') {
+                return -1;
+            }
+            slot = (slot << 5) | (c - 'A' + 1);
+        }
+        return slot;
+    }
+}
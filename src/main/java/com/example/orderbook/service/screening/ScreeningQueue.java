@@ -0,0 +1,162 @@
+package com.example.orderbook.service.screening;
+
+import com.example.orderbook.repository.ScreeningRepository;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.ScreeningEntity;
+import com.example.orderbook.service.entity.ScreeningStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands suspicious orders from the ingest path to background workers that store them for screening
+ * <p>
+ * Offering never blocks the request: when the queue is full the order is dropped and counted instead.
+ * Workers write whatever has queued up as one JDBC batch, so a burst of rejections costs a few round trips
+ * rather than one per order. A batch that cannot be stored goes back into the queue and is retried after
+ * the poll interval. The queue is flushed on shutdown.
+ */
+@Slf4j
+@Component
+public class ScreeningQueue {
+
+    private final ScreeningRepository screeningRepository;
+    private final BlockingQueue<ScreeningEntity> queue;
+    private final int batchSize;
+    private final int workerCount;
+    private final long pollMillis;
+    private final AtomicLong dropped = new AtomicLong();
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    public ScreeningQueue(ScreeningRepository screeningRepository,
+                          @Value("${orderbook.screening.capacity:10000}") int capacity,
+                          @Value("${orderbook.screening.batch-size:100}") int batchSize,
+                          @Value("${orderbook.screening.workers:1}") int workerCount,
+                          @Value("${orderbook.screening.poll-interval:PT0.1S}") Duration pollInterval) {
+        this.screeningRepository = screeningRepository;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.workerCount = workerCount;
+        this.pollMillis = pollInterval.toMillis();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        workers = Executors.newFixedThreadPool(workerCount, Thread.ofPlatform().name("screening-worker-", 0).daemon().factory());
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.error("Screening workers did not finish in time");
+        }
+        List<ScreeningEntity> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            if (!persist(batch)) {
+                // nobody is left to retry, count what is still queued as dropped
+                log.error("Dropped {} orders for screening on shutdown", batch.size() + queue.size());
+                dropped.addAndGet(batch.size() + queue.size());
+                queue.clear();
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Queue an order that deviated too much from the daily average
+     *
+     * @param order        the rejected order, with the date it was placed on and its idempotency key if it has one
+     * @param dailyAverage the average it was compared with
+     * @return false if the queue was full and the order is not kept for screening
+     */
+    public boolean offer(OrderEntity order, double dailyAverage) {
+        ScreeningEntity screening = ScreeningEntity.builder()
+                .receivedAt(LocalDateTime.now())
+                .date(order.getDate())
+                .ticker(order.getTicker())
+                .orderSide(order.getOrderSide())
+                .volume(order.getVolume())
+                .price(order.getPrice())
+                .currency(order.getCurrency())
+                .dailyAverage(dailyAverage)
+                .status(ScreeningStatus.PENDING)
+                .idempotencyKey(order.getIdempotencyKey())
+                .build();
+        if (!queue.offer(screening)) {
+            log.error("Screening queue is full, dropped {} order for {} at {}", order.getOrderSide(), order.getTicker(), order.getPrice());
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+
+    private void work() {
+        List<ScreeningEntity> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ScreeningEntity first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!persist(batch)) {
+                    requeue(batch);
+                    Thread.sleep(pollMillis);
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean persist(List<ScreeningEntity> batch) {
+        try {
+            screeningRepository.insertAll(batch);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Could not store {} orders for screening", batch.size(), e);
+            return false;
+        }
+    }
+
+    private void requeue(List<ScreeningEntity> batch) {
+        for (ScreeningEntity screening : batch) {
+            if (!queue.offer(screening)) {
+                log.error("Screening queue is full, dropped {} order for {} at {}", screening.getOrderSide(), screening.getTicker(), screening.getPrice());
+                dropped.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.orderbook.service.screening;
+
+import com.example.orderbook.api.exceptionhandling.OrderValidationException;
+import com.example.orderbook.repository.ScreeningRepository;
+import com.example.orderbook.service.DayLocks;
+import com.example.orderbook.service.OrderService;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.ScreeningEntity;
+import com.example.orderbook.service.entity.ScreeningStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+@Service
+@Slf4j
+public class ScreeningService {
+
+    public static final int MAX_BATCH = 1000;
+
+    private final ScreeningRepository screeningRepository;
+    private final OrderService orderService;
+    private final DayLocks dayLocks;
+
+    public ScreeningService(ScreeningRepository screeningRepository, OrderService orderService, DayLocks dayLocks) {
+        this.screeningRepository = screeningRepository;
+        this.orderService = orderService;
+        this.dayLocks = dayLocks;
+    }
+
+    /**
+     * @param limit maximum number of orders to return
+     * @return the pending orders, oldest first
+     */
+    public List<ScreeningEntity> getPending(int limit) {
+        if (limit < 1 || limit > MAX_BATCH) {
+            throw new OrderValidationException(Map.of("limit", "Limit must be between 1 and " + MAX_BATCH));
+        }
+        return screeningRepository.findByStatusOrderById(ScreeningStatus.PENDING, Limit.of(limit));
+    }
+
+    public List<ScreeningEntity> getAll(List<Long> ids) {
+        return screeningRepository.findAllById(validate(ids));
+    }
+
+    /**
+     * Add the pending orders among the ids to the order book, on the day they were originally placed
+     * Orders of days that are already archived cannot be added anymore and stay pending
+     *
+     * @return the orders that were approved by this call
+     */
+    public List<ScreeningEntity> approve(List<Long> ids) {
+        List<ScreeningEntity> approved = new ArrayList<>();
+        for (ScreeningEntity screening : screeningRepository.findAllById(validate(ids))) {
+            if (screening.getStatus() != ScreeningStatus.PENDING) {
+                continue;
+            }
+            if (screeningRepository.claim(screening.getId(), ScreeningStatus.APPROVED) == 0) {
+                // decided by a concurrent request
+                continue;
+            }
+            Optional<OrderEntity> savedOrder;
+            try {
+                savedOrder = saveApprovedOrder(screening);
+            } catch (RuntimeException e) {
+                // hand the order back, so the approval can be retried
+                screening.setStatus(ScreeningStatus.PENDING);
+                screeningRepository.save(screening);
+                throw e;
+            }
+            if (savedOrder.isEmpty()) {
+                log.error("Screened order {} belongs to archived day {} and cannot be approved", screening.getId(), screening.getDate());
+                screening.setStatus(ScreeningStatus.PENDING);
+                screeningRepository.save(screening);
+                continue;
+            }
+            screening.setOrderId(savedOrder.get().getId());
+            screening.setStatus(ScreeningStatus.APPROVED);
+            approved.add(screeningRepository.save(screening));
+        }
+        log.info("Approved {} of {} screened orders", approved.size(), ids.size());
+        return approved;
+    }
+
+    /**
+     * Orders of past days are added while the day is locked against the rollup and the archiver
+     *
+     * @return empty if the day is already archived
+     */
+    private Optional<OrderEntity> saveApprovedOrder(ScreeningEntity screening) {
+        if (!screening.getDate().isBefore(LocalDate.now())) {
+            // the current day is neither rolled up nor archived, its orders live in memory as well
+            return Optional.of(orderService.saveApprovedOrder(screening.toOrder()));
+        }
+        return dayLocks.execute(screening.getDate(),
+                day -> day.isArchived() ? Optional.empty() : Optional.of(orderService.saveApprovedOrder(screening.toOrder())));
+    }
+
+    /**
+     * Discard the pending orders among the ids
+     *
+     * @return the orders that were rejected by this call
+     */
+    public List<ScreeningEntity> reject(List<Long> ids) {
+        List<ScreeningEntity> rejected = new ArrayList<>();
+        for (ScreeningEntity screening : screeningRepository.findAllById(validate(ids))) {
+            if (screening.getStatus() == ScreeningStatus.PENDING
+                    && screeningRepository.claim(screening.getId(), ScreeningStatus.REJECTED) == 1) {
+                screening.setStatus(ScreeningStatus.REJECTED);
+                rejected.add(screening);
+            }
+        }
+        log.info("Rejected {} of {} screened orders", rejected.size(), ids.size());
+        return rejected;
+    }
+
+    private static List<Long> validate(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH || ids.stream().anyMatch(Objects::isNull)) {
+            throw new OrderValidationException(Map.of("ids", "Between 1 and " + MAX_BATCH + " ids must be given"));
+        }
+        return ids;
+    }
+}
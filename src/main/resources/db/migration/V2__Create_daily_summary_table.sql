@@ -0,0 +1,11 @@
+CREATE TABLE daily_summary (
+    ticker      VARCHAR(4)       NOT NULL,
+    order_side  VARCHAR(4)       NOT NULL,
+    date        DATE             NOT NULL,
+    order_count BIGINT           NOT NULL,
+    min_price   DOUBLE PRECISION NOT NULL,
+    max_price   DOUBLE PRECISION NOT NULL,
+    sum_price   DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (ticker, date, order_side));
+
+CREATE INDEX idx_orders_date_ticker ON orders (date, ticker);
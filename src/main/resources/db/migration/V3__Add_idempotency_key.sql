@@ -0,0 +1,3 @@
+ALTER TABLE orders ADD COLUMN idempotency_key VARCHAR(64) NULL;
+
+CREATE UNIQUE INDEX uq_orders_idempotency_key ON orders (idempotency_key);
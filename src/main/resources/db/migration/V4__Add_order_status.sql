@@ -0,0 +1 @@
+ALTER TABLE orders ADD COLUMN status VARCHAR(9) NOT NULL DEFAULT 'ACTIVE';
@@ -0,0 +1,2 @@
+-- Keyset pagination of GET /order walks one ticker in (date, id) order
+CREATE INDEX idx_orders_ticker_date_id ON orders (ticker, date, id);
@@ -0,0 +1,14 @@
+CREATE TABLE screening_queue (
+    id            BIGINT AUTO_INCREMENT PRIMARY KEY,
+    received_at   TIMESTAMP        NOT NULL,
+    date          DATE             NOT NULL,
+    ticker        VARCHAR(4)       NOT NULL,
+    order_side    VARCHAR(4)       NOT NULL,
+    volume        BIGINT           NOT NULL,
+    price         DOUBLE PRECISION NOT NULL,
+    currency      VARCHAR(3)       NOT NULL,
+    daily_average DOUBLE PRECISION NOT NULL,
+    status        VARCHAR(8)       NOT NULL,
+    order_id      BIGINT           NULL);
+
+CREATE INDEX idx_screening_queue_status ON screening_queue (status, id);
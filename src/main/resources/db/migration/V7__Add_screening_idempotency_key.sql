@@ -0,0 +1,3 @@
+ALTER TABLE screening_queue ADD COLUMN idempotency_key VARCHAR(64) NULL;
+
+CREATE UNIQUE INDEX uq_screening_queue_idempotency_key ON screening_queue (idempotency_key);
@@ -0,0 +1,3 @@
+CREATE TABLE day_lock (
+    date     DATE    NOT NULL PRIMARY KEY,
+    archived BOOLEAN NOT NULL);
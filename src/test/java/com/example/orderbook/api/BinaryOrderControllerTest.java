@@ -0,0 +1,161 @@
+package com.example.orderbook.api;
+
+import com.example.orderbook.api.binary.BinaryOrderController;
+import com.example.orderbook.api.binary.OrderFlyweight;
+import com.example.orderbook.api.exceptionhandling.SuspiciousDeviationException;
+import com.example.orderbook.cluster.TickerRouter;
+import com.example.orderbook.ratelimit.RateLimiter;
+import com.example.orderbook.service.OrderService;
+import com.example.orderbook.service.entity.OrderEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BinaryOrderController.class)
+public class BinaryOrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OrderService orderService;
+
+    @MockBean
+    private TickerRouter tickerRouter;
+
+    @MockBean
+    private RateLimiter rateLimiter;
+
+    private final LocalDate date = LocalDate.now();
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a batch of binary orders is decoded and answered frame by frame")
+    void givenBinaryOrders_whenCreateOrders_thenEveryFrameGetsResult() throws Exception {
+        ByteBuffer request = ByteBuffer.allocate(3 * OrderFlyweight.LENGTH);
+        OrderFlyweight.encode(request, "SAVE", OrderFlyweight.BUY, 100, 235.0, "SEK");
+        OrderFlyweight.encode(request, "TSLA", OrderFlyweight.SELL, 50, 9999.0, "USD");
+        OrderFlyweight.encode(request, "SAVE", OrderFlyweight.SELL, 0, 235.0, "SEK");
+
+        when(orderService.saveNewOrder(argThat(order -> order != null && order.getTicker().equals("SAVE"))))
+                .thenReturn(OrderEntity.builder().id(7L).date(date).build());
+        when(orderService.saveNewOrder(argThat(order -> order != null && order.getTicker().equals("TSLA"))))
+                .thenThrow(new SuspiciousDeviationException("The price deviates more than 10% from the daily average."));
+
+        byte[] body = mockMvc.perform(MockMvcRequestBuilders
+                        .post("/order/binary")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(request.array()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ByteBuffer response = ByteBuffer.wrap(body);
+        assertEquals(3 * OrderFlyweight.RESULT_LENGTH, body.length);
+        assertEquals(7L, response.getLong(0));
+        assertEquals(date.toEpochDay(), response.getInt(8));
+        assertEquals(OrderFlyweight.ACCEPTED, response.get(12));
+        assertEquals(OrderFlyweight.SUSPICIOUS_DEVIATION, response.get(OrderFlyweight.RESULT_LENGTH + 12));
+        assertEquals(OrderFlyweight.INVALID, response.get(2 * OrderFlyweight.RESULT_LENGTH + 12));
+        verify(orderService, times(2)).saveNewOrder(any(OrderEntity.class));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that frames over the ticker rate limit are answered with RATE_LIMITED")
+    void givenTickerOverRateLimit_whenCreateOrders_thenFrameIsRateLimited() throws Exception {
+        ByteBuffer request = ByteBuffer.allocate(2 * OrderFlyweight.LENGTH);
+        OrderFlyweight.encode(request, "SAVE", OrderFlyweight.BUY, 100, 235.0, "SEK");
+        OrderFlyweight.encode(request, "TSLA", OrderFlyweight.SELL, 50, 250.0, "USD");
+
+        when(rateLimiter.acquire(any(), eq("TSLA"))).thenReturn(1_000_000L);
+        when(orderService.saveNewOrder(any(OrderEntity.class)))
+                .thenReturn(OrderEntity.builder().id(8L).date(date).build());
+
+        byte[] body = mockMvc.perform(MockMvcRequestBuilders
+                        .post("/order/binary")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(request.array()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ByteBuffer response = ByteBuffer.wrap(body);
+        assertEquals(OrderFlyweight.ACCEPTED, response.get(12));
+        assertEquals(OrderFlyweight.RATE_LIMITED, response.get(OrderFlyweight.RESULT_LENGTH + 12));
+        verify(orderService, times(1)).saveNewOrder(any(OrderEntity.class));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a frame that fails to save is answered with FAILED and the rest of the batch is still saved")
+    void givenSaveFailure_whenCreateOrders_thenFrameFailsAndBatchContinues() throws Exception {
+        ByteBuffer request = ByteBuffer.allocate(3 * OrderFlyweight.LENGTH);
+        OrderFlyweight.encode(request, "SAVE", OrderFlyweight.BUY, 100, 235.0, "SEK");
+        OrderFlyweight.encode(request, "TSLA", OrderFlyweight.SELL, 50, 250.0, "USD");
+        OrderFlyweight.encode(request, "SAVE", OrderFlyweight.SELL, 10, 236.0, "SEK");
+
+        when(orderService.saveNewOrder(argThat(order -> order != null && order.getTicker().equals("SAVE"))))
+                .thenReturn(OrderEntity.builder().id(7L).date(date).build(), OrderEntity.builder().id(9L).date(date).build());
+        when(orderService.saveNewOrder(argThat(order -> order != null && order.getTicker().equals("TSLA"))))
+                .thenThrow(new DataAccessResourceFailureException("Connection is not available"));
+
+        byte[] body = mockMvc.perform(MockMvcRequestBuilders
+                        .post("/order/binary")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(request.array()))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ByteBuffer response = ByteBuffer.wrap(body);
+        assertEquals(OrderFlyweight.ACCEPTED, response.get(12));
+        assertEquals(OrderFlyweight.FAILED, response.get(OrderFlyweight.RESULT_LENGTH + 12));
+        assertEquals(9L, response.getLong(2 * OrderFlyweight.RESULT_LENGTH));
+        assertEquals(OrderFlyweight.ACCEPTED, response.get(2 * OrderFlyweight.RESULT_LENGTH + 12));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify bad request when the body is not made of whole frames")
+    void givenTruncatedFrame_whenCreateOrders_thenBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders
+                        .post("/order/binary")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(new byte[OrderFlyweight.LENGTH - 1]))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that frames with an unknown order side, bad padding or a price that is not a finite positive number are rejected")
+    void givenInvalidFields_whenValidate_thenFrameIsInvalid() {
+        ByteBuffer frames = ByteBuffer.allocate(5 * OrderFlyweight.LENGTH);
+        OrderFlyweight.encode(frames, "SAVE", (byte) 2, 100, 235.0, "SEK");
+        OrderFlyweight.encode(frames, "", OrderFlyweight.BUY, 100, 235.0, "SEK");
+        OrderFlyweight.encode(frames, "SAVE", OrderFlyweight.BUY, 100, -1.0, "SEK");
+        OrderFlyweight.encode(frames, "SAVE", OrderFlyweight.BUY, 100, Double.NaN, "SEK");
+        OrderFlyweight.encode(frames, "SAVE", OrderFlyweight.BUY, 100, Double.POSITIVE_INFINITY, "SEK");
+        OrderFlyweight flyweight = new OrderFlyweight();
+
+        for (int i = 0; i < 5; i++) {
+            assertFalse(flyweight.wrap(frames, i * OrderFlyweight.LENGTH).isValid());
+        }
+    }
+}
@@ -1,7 +1,19 @@
 package com.example.orderbook.api;
 
+import com.example.orderbook.api.exceptionhandling.OrderNotAmendableException;
+import com.example.orderbook.api.exceptionhandling.RateLimitExceededException;
+import com.example.orderbook.cluster.ClusterForwarder;
+import com.example.orderbook.cluster.ClusterNode;
+import com.example.orderbook.cluster.TickerRouter;
+import com.example.orderbook.ratelimit.RateLimiter;
 import com.example.orderbook.service.OrderService;
+import com.example.orderbook.service.entity.BookLevel;
+import com.example.orderbook.service.entity.OrderAmendment;
+import com.example.orderbook.service.entity.OrderBookResponse;
 import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderListResponse;
+import com.example.orderbook.service.entity.OrderSide;
+import com.example.orderbook.service.entity.OrderStatus;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -13,11 +25,18 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(OrderController.class)
@@ -29,7 +48,16 @@ public class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
-    private final static String BUY = "BUY";
+    @MockBean
+    private TickerRouter tickerRouter;
+
+    @MockBean
+    private ClusterForwarder clusterForwarder;
+
+    @MockBean
+    private RateLimiter rateLimiter;
+
+    private final static OrderSide BUY = OrderSide.BUY;
     private final LocalDate date = LocalDate.now();
     private final String currency = "SEK";
     private final String ticker = "SAVE";
@@ -69,7 +97,7 @@ public class OrderControllerTest {
                 "  \"currency\": "+ currency +"\n" +
                 "}";
 
-        when(orderService.saveNewOrder(any(OrderEntity.class))).thenReturn(mockedResponse);
+        when(orderService.saveNewOrder(any(OrderEntity.class), isNull())).thenReturn(mockedResponse);
 
         mockMvc.perform(MockMvcRequestBuilders
                 .post("/order")
@@ -79,6 +107,60 @@ public class OrderControllerTest {
                 .andExpect(content().json(expectedResponse));
     }
 
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that an order for a ticker owned by another instance is forwarded")
+    void givenTickerOwnedElsewhere_whenCreateOrder_thenForwardToOwner() throws Exception {
+        String order = "{\n" +
+                "  \"ticker\": \""+ ticker +"\",\n" +
+                "  \"orderSide\": \""+ BUY +"\",\n" +
+                "  \"volume\": "+ volume +",\n" +
+                "  \"price\": "+ price +",\n" +
+                "  \"currency\": \""+ currency +"\"\n" +
+                "}";
+        ClusterNode owner = new ClusterNode("node-2", "http://localhost:8081");
+
+        when(tickerRouter.remoteOwnerOf(ticker)).thenReturn(Optional.of(owner));
+        when(clusterForwarder.forwardOrder(any(ClusterNode.class), any(OrderEntity.class), isNull()))
+                .thenReturn(OrderEntity.builder().id(9L).date(date).ticker(ticker).orderSide(BUY).volume(volume).price(price).currency(currency).build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/order")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(order))
+                .andExpect(status().isCreated())
+                .andExpect(content().json("{\"id\": 9}"));
+
+        verify(orderService, never()).saveNewOrder(any(OrderEntity.class), any());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a forwarded order is handled locally even if this instance is not the owner")
+    void givenForwardedOrder_whenCreateOrder_thenHandleLocally() throws Exception {
+        String order = "{\n" +
+                "  \"ticker\": \""+ ticker +"\",\n" +
+                "  \"orderSide\": \""+ BUY +"\",\n" +
+                "  \"volume\": "+ volume +",\n" +
+                "  \"price\": "+ price +",\n" +
+                "  \"currency\": \""+ currency +"\"\n" +
+                "}";
+
+        when(tickerRouter.isTrustedForwarder(eq("node-2"), any())).thenReturn(true);
+        when(orderService.saveNewOrder(any(OrderEntity.class), isNull()))
+                .thenReturn(OrderEntity.builder().id(10L).date(date).ticker(ticker).orderSide(BUY).volume(volume).price(price).currency(currency).build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/order")
+                .header(ClusterForwarder.FORWARDED_HEADER, "node-2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(order))
+                .andExpect(status().isCreated())
+                .andExpect(content().json("{\"id\": 10}"));
+
+        verify(tickerRouter, never()).remoteOwnerOf(ticker);
+    }
+
     @Test
     @Tag("happy-path")
     @DisplayName("Verify that get order by id can succeed")
@@ -224,4 +306,317 @@ public class OrderControllerTest {
                 .content(String.valueOf(order)))
                 .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify bad request with field errors when volume is not positive")
+    void givenNegativeVolume_whenCreateOrder_thenValidationFails() throws Exception {
+        String order = "{\n" +
+                "  \"ticker\": \""+ ticker +"\",\n" +
+                "  \"orderSide\": \""+ BUY +"\",\n" +
+                "  \"volume\": -1,\n" +
+                "  \"price\": "+ price +",\n" +
+                "  \"currency\": \""+ currency +"\"\n" +
+                "}";
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/order")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(order))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"volume\": \"Volume must be positive\"}", true));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify bad request when order side is unknown")
+    void givenUnknownOrderSide_whenCreateOrder_thenValidationFails() throws Exception {
+        String order = "{\n" +
+                "  \"ticker\": \""+ ticker +"\",\n" +
+                "  \"orderSide\": \"HOLD\",\n" +
+                "  \"volume\": "+ volume +",\n" +
+                "  \"price\": "+ price +",\n" +
+                "  \"currency\": \""+ currency +"\"\n" +
+                "}";
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/order")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(order))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"orderSide\": \"Order side must be either BUY or SELL\"}", true));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the idempotency key is passed on to the service")
+    void givenIdempotencyKey_whenCreateOrder_thenServiceReceivesKey() throws Exception {
+        String order = "{\n" +
+                "  \"ticker\": \""+ ticker +"\",\n" +
+                "  \"orderSide\": \""+ BUY +"\",\n" +
+                "  \"volume\": "+ volume +",\n" +
+                "  \"price\": "+ price +",\n" +
+                "  \"currency\": \""+ currency +"\"\n" +
+                "}";
+
+        when(orderService.saveNewOrder(any(OrderEntity.class), eq("retry-1")))
+                .thenReturn(OrderEntity.builder().id(11L).date(date).ticker(ticker).orderSide(BUY).volume(volume).price(price).currency(currency).build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/order")
+                .header(OrderController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(order))
+                .andExpect(status().isCreated())
+                .andExpect(content().json("{\"id\": 11}"));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify bad request when the idempotency key is too long")
+    void givenTooLongIdempotencyKey_whenCreateOrder_thenValidationFails() throws Exception {
+        String order = "{\n" +
+                "  \"ticker\": \""+ ticker +"\",\n" +
+                "  \"orderSide\": \""+ BUY +"\",\n" +
+                "  \"volume\": "+ volume +",\n" +
+                "  \"price\": "+ price +",\n" +
+                "  \"currency\": \""+ currency +"\"\n" +
+                "}";
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/order")
+                .header(OrderController.IDEMPOTENCY_KEY_HEADER, "k".repeat(65))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(order))
+                .andExpect(status().isBadRequest());
+
+        verify(orderService, never()).saveNewOrder(any(OrderEntity.class), any());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a request claiming to be forwarded by someone outside the cluster is forbidden")
+    void givenUntrustedForwarder_whenCreateOrder_thenForbidden() throws Exception {
+        String order = "{\n" +
+                "  \"ticker\": \""+ ticker +"\",\n" +
+                "  \"orderSide\": \""+ BUY +"\",\n" +
+                "  \"volume\": "+ volume +",\n" +
+                "  \"price\": "+ price +",\n" +
+                "  \"currency\": \""+ currency +"\"\n" +
+                "}";
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/order")
+                .header(ClusterForwarder.FORWARDED_HEADER, "node-2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(order))
+                .andExpect(status().isForbidden())
+                .andExpect(content().json("{\"status\": \"ERROR\", \"message\": \"Forwarded requests are only accepted from cluster members\"}"));
+
+        verify(orderService, never()).saveNewOrder(any(OrderEntity.class), any());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify too many requests when the client exceeded its rate limit")
+    void givenClientOverRateLimit_whenCreateOrder_thenTooManyRequests() throws Exception {
+        String order = "{\n" +
+                "  \"ticker\": \""+ ticker +"\",\n" +
+                "  \"orderSide\": \""+ BUY +"\",\n" +
+                "  \"volume\": "+ volume +",\n" +
+                "  \"price\": "+ price +",\n" +
+                "  \"currency\": \""+ currency +"\"\n" +
+                "}";
+
+        when(rateLimiter.clientKey(eq("client-1"), any())).thenReturn("key:client-1");
+        doThrow(new RateLimitExceededException("Too many orders, slow down", 2))
+                .when(rateLimiter).admit("key:client-1", ticker);
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/order")
+                .header(OrderController.API_KEY_HEADER, "client-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(order))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(content().json("{\"status\": \"ERROR\", \"message\": \"Too many orders, slow down\"}"));
+
+        verify(orderService, never()).saveNewOrder(any(OrderEntity.class), any());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that forwarded orders are not counted against the client rate limit again")
+    void givenForwardedOrder_whenCreateOrder_thenClientLimitIsSkipped() throws Exception {
+        String order = "{\n" +
+                "  \"ticker\": \""+ ticker +"\",\n" +
+                "  \"orderSide\": \""+ BUY +"\",\n" +
+                "  \"volume\": "+ volume +",\n" +
+                "  \"price\": "+ price +",\n" +
+                "  \"currency\": \""+ currency +"\"\n" +
+                "}";
+
+        when(tickerRouter.isTrustedForwarder(eq("node-a"), any())).thenReturn(true);
+        when(orderService.saveNewOrder(any(OrderEntity.class), isNull()))
+                .thenReturn(OrderEntity.builder().id(12L).date(date).ticker(ticker).orderSide(BUY).volume(volume).price(price).currency(currency).build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/order")
+                .header(ClusterForwarder.FORWARDED_HEADER, "node-a")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(order))
+                .andExpect(status().isCreated());
+
+        verify(rateLimiter, never()).admitClient(any());
+        verify(rateLimiter, never()).admit(any(), any());
+        verify(rateLimiter).admitTicker(ticker);
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a retry of an order that was already saved is answered with it while the client is over its rate limit")
+    void givenSavedIdempotencyKeyOverRateLimit_whenCreateOrder_thenReturnOriginalOrder() throws Exception {
+        String order = "{\n" +
+                "  \"ticker\": \""+ ticker +"\",\n" +
+                "  \"orderSide\": \""+ BUY +"\",\n" +
+                "  \"volume\": "+ volume +",\n" +
+                "  \"price\": "+ price +",\n" +
+                "  \"currency\": \""+ currency +"\"\n" +
+                "}";
+
+        doThrow(new RateLimitExceededException("Too many orders, slow down", 2))
+                .when(rateLimiter).admit(any(), eq(ticker));
+        when(orderService.findByIdempotencyKey("retry-1"))
+                .thenReturn(Optional.of(OrderEntity.builder().id(13L).date(date).ticker(ticker).orderSide(BUY).volume(volume).price(price).currency(currency).build()));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .post("/order")
+                .header(OrderController.IDEMPOTENCY_KEY_HEADER, "retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(order))
+                .andExpect(status().isCreated())
+                .andExpect(content().json("{\"id\": 13}"));
+
+        verify(orderService, never()).saveNewOrder(any(OrderEntity.class), any());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the order listing is returned as parallel arrays and defaults to a single day")
+    void givenOrders_whenListOrders_thenReturnColumns() throws Exception {
+        when(orderService.listOrders(ticker, date, date, null, 1000)).thenReturn(OrderListResponse.builder()
+                .ticker(ticker)
+                .nextCursor(date + ":2")
+                .ids(new long[]{1L, 2L})
+                .dates(new LocalDate[]{date, date})
+                .orderSides(new OrderSide[]{BUY, OrderSide.SELL})
+                .volumes(new long[]{volume, volume})
+                .prices(new double[]{price, price + 1})
+                .currencies(new String[]{currency, currency})
+                .statuses(new OrderStatus[]{OrderStatus.ACTIVE, OrderStatus.CANCELLED})
+                .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/order")
+                        .param("ticker", ticker)
+                        .param("from", date.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"ids\": [1, 2], \"prices\": [23500.0, 23501.0], \"statuses\": [\"ACTIVE\", \"CANCELLED\"], \"nextCursor\": \"" + date + ":2\"}"));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that cancelling an order returns it with status CANCELLED")
+    void givenActiveOrder_whenCancelOrder_thenReturnCancelledOrder() throws Exception {
+        when(orderService.cancelOrder(1L))
+                .thenReturn(OrderEntity.builder().id(1L).date(date).ticker(ticker).orderSide(BUY).volume(volume).price(price).currency(currency).status(OrderStatus.CANCELLED).build());
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/order/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\": 1, \"status\": \"CANCELLED\"}"));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify conflict when cancelling an order from a closed day")
+    void givenOrderFromClosedDay_whenCancelOrder_thenReturnConflict() throws Exception {
+        when(orderService.cancelOrder(1L)).thenThrow(new OrderNotAmendableException("Only orders from the current day can be cancelled or amended"));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/order/{id}", 1L))
+                .andExpect(status().isConflict())
+                .andExpect(content().json("{\"status\": \"ERROR\", \"message\": \"Only orders from the current day can be cancelled or amended\"}"));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that cancelling an order of a ticker owned by another instance is forwarded")
+    void givenRemoteOwner_whenCancelOrder_thenCancellationIsForwarded() throws Exception {
+        ClusterNode owner = new ClusterNode("node-b", "http://node-b:8080");
+        OrderEntity order = OrderEntity.builder().id(1L).date(date).ticker(ticker).orderSide(BUY).volume(volume).price(price).currency(currency).build();
+
+        when(tickerRouter.isEnabled()).thenReturn(true);
+        when(orderService.getOrderById(1L)).thenReturn(Optional.of(order));
+        when(tickerRouter.remoteOwnerOf(ticker)).thenReturn(Optional.of(owner));
+        when(clusterForwarder.forwardCancel(owner, 1L)).thenReturn(order);
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/order/{id}", 1L))
+                .andExpect(status().isOk());
+
+        verify(orderService, never()).cancelOrder(any());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that amending an order returns the amended order")
+    void givenAmendment_whenAmendOrder_thenReturnAmendedOrder() throws Exception {
+        when(orderService.amendOrder(eq(1L), any(OrderAmendment.class)))
+                .thenReturn(OrderEntity.builder().id(1L).date(date).ticker(ticker).orderSide(BUY).volume(50L).price(price).currency(currency).status(OrderStatus.ACTIVE).build());
+
+        mockMvc.perform(MockMvcRequestBuilders
+                .patch("/order/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"volume\": 50}"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\": 1, \"volume\": 50, \"status\": \"ACTIVE\"}"));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify bad request when an amendment changes nothing")
+    void givenEmptyAmendment_whenAmendOrder_thenValidationFails() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders
+                .patch("/order/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"amendment\": \"An amendment must change volume or price\"}"));
+
+        verify(orderService, never()).amendOrder(any(), any());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the order book is returned with bids and asks per price level")
+    void givenOrderBook_whenGetOrderBook_thenReturnLevels() throws Exception {
+        OrderBookResponse book = OrderBookResponse.builder()
+                .ticker(ticker)
+                .date(date)
+                .currency(currency)
+                .bids(List.of(BookLevel.builder().price(235.0).volume(300L).orders(2).build()))
+                .asks(List.of(BookLevel.builder().price(236.0).volume(50L).orders(1).build()))
+                .build();
+        when(orderService.getOrderBook(ticker, null, 5)).thenReturn(book);
+
+        String expectedResponse = "{\n" +
+                "  \"ticker\": \"" + ticker + "\",\n" +
+                "  \"currency\": \"" + currency + "\",\n" +
+                "  \"bids\": [{\"price\": 235.0, \"volume\": 300, \"orders\": 2}],\n" +
+                "  \"asks\": [{\"price\": 236.0, \"volume\": 50, \"orders\": 1}]\n" +
+                "}";
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/order/book")
+                .param("ticker", ticker)
+                .param("depth", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(expectedResponse));
+    }
+}
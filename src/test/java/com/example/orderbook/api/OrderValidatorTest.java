@@ -0,0 +1,64 @@
+package com.example.orderbook.api;
+
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderValidatorTest {
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a valid order has no errors")
+    public void givenValidOrder_whenValidate_thenNoErrors() {
+        OrderEntity order = OrderEntity.builder()
+                .ticker("SAVE")
+                .orderSide(OrderSide.BUY)
+                .volume(100L)
+                .price(0.0)
+                .currency("SEK")
+                .build();
+
+        assertTrue(OrderValidator.validate(order).isEmpty());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that missing fields are reported with the bean validation messages")
+    public void givenEmptyOrder_whenValidate_thenEveryFieldIsReported() {
+        Map<String, String> errors = OrderValidator.validate(new OrderEntity());
+
+        assertEquals(5, errors.size());
+        assertEquals("An order must contain a ticker", errors.get("ticker"));
+        assertEquals("Order side must be either BUY or SELL", errors.get("orderSide"));
+        assertEquals("An order must specify volume", errors.get("volume"));
+        assertEquals("An order must contain price information", errors.get("price"));
+        assertEquals("An order must contain currency", errors.get("currency"));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that out of range values are reported")
+    public void givenOutOfRangeValues_whenValidate_thenRangeErrorsAreReported() {
+        OrderEntity order = OrderEntity.builder()
+                .ticker("TOOLONG")
+                .orderSide(OrderSide.SELL)
+                .volume(0L)
+                .price(-0.5)
+                .currency("")
+                .build();
+
+        Map<String, String> errors = OrderValidator.validate(order);
+
+        assertEquals(4, errors.size());
+        assertEquals("Ticker must be between 1 and 4 characters", errors.get("ticker"));
+        assertEquals("Volume must be positive", errors.get("volume"));
+        assertEquals("Price must be greater than or equal to 0", errors.get("price"));
+        assertEquals("Currency must be between 1 and 3 characters", errors.get("currency"));
+    }
+}
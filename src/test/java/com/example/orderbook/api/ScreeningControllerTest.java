@@ -0,0 +1,104 @@
+package com.example.orderbook.api;
+
+import com.example.orderbook.cluster.ClusterForwarder;
+import com.example.orderbook.cluster.ClusterNode;
+import com.example.orderbook.cluster.TickerRouter;
+import com.example.orderbook.service.entity.OrderSide;
+import com.example.orderbook.service.entity.ScreeningEntity;
+import com.example.orderbook.service.entity.ScreeningStatus;
+import com.example.orderbook.service.screening.ScreeningService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ScreeningController.class)
+public class ScreeningControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ScreeningService screeningService;
+
+    @MockBean
+    private TickerRouter tickerRouter;
+
+    @MockBean
+    private ClusterForwarder clusterForwarder;
+
+    private final LocalDate date = LocalDate.now();
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the pending orders are listed")
+    void givenPendingOrders_whenGetPending_thenReturnOrders() throws Exception {
+        when(screeningService.getPending(100)).thenReturn(List.of(screening(1L, ScreeningStatus.PENDING)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/screening"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\": 1, \"ticker\": \"SAVE\", \"status\": \"PENDING\", \"dailyAverage\": 235.0}]"));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that approvals are handled locally outside cluster mode")
+    void givenIds_whenApprove_thenReturnApprovedOrders() throws Exception {
+        when(screeningService.approve(List.of(1L, 2L))).thenReturn(List.of(screening(1L, ScreeningStatus.APPROVED)));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/screening/approve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1, 2]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\": 1, \"status\": \"APPROVED\"}]"));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that approvals of the current day are forwarded to the owner of the ticker")
+    void givenTickerOwnedElsewhere_whenApprove_thenApprovalIsForwarded() throws Exception {
+        ClusterNode owner = new ClusterNode("node-2", "http://localhost:8081");
+        when(tickerRouter.isEnabled()).thenReturn(true);
+        when(tickerRouter.remoteOwnerOf("SAVE")).thenReturn(Optional.of(owner));
+        when(screeningService.getAll(List.of(1L))).thenReturn(List.of(screening(1L, ScreeningStatus.PENDING)));
+        when(clusterForwarder.forwardApprove(owner, List.of(1L))).thenReturn(List.of(screening(1L, ScreeningStatus.APPROVED)));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/screening/approve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\": 1, \"status\": \"APPROVED\"}]"));
+
+        verify(screeningService, never()).approve(any());
+    }
+
+    private ScreeningEntity screening(Long id, ScreeningStatus status) {
+        return ScreeningEntity.builder()
+                .id(id)
+                .date(date)
+                .ticker("SAVE")
+                .orderSide(OrderSide.BUY)
+                .volume(100L)
+                .price(300.0)
+                .currency("SEK")
+                .dailyAverage(235.0)
+                .status(status)
+                .build();
+    }
+}
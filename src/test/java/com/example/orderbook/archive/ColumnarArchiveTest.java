@@ -0,0 +1,203 @@
+package com.example.orderbook.archive;
+
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import com.example.orderbook.service.entity.SummaryResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ColumnarArchiveTest {
+
+    private final static OrderSide BUY = OrderSide.BUY;
+    private final static OrderSide SELL = OrderSide.SELL;
+    private final static List<String> TICKERS = List.of("SAVE", "TSLA", "AAPL", "VOLV");
+    private final LocalDate firstDate = LocalDate.of(2024, 11, 4);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that summaries read from the archive match summaries calculated from the orders")
+    public void givenArchivedOrders_whenSummarize_thenMatchOrders() throws IOException {
+        List<OrderEntity> orders = generateOrders(20_000);
+        Path file = writeArchive(orders, 1000);
+
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            assertEquals(orders.size(), reader.rowCount());
+            for (int day = 0; day < 5; day++) {
+                LocalDate date = firstDate.plusDays(day);
+                for (String ticker : TICKERS) {
+                    SummaryResponse summary = reader.summarize(ticker, date).orElseThrow();
+
+                    List<OrderEntity> buyOrders = filter(orders, ticker, BUY, date);
+                    List<OrderEntity> sellOrders = filter(orders, ticker, SELL, date);
+                    assertEquals(buyOrders.size(), summary.getBuySummary().getCount());
+                    assertEquals(min(buyOrders), summary.getBuySummary().getMin());
+                    assertEquals(max(buyOrders), summary.getBuySummary().getMax());
+                    assertEquals(avg(buyOrders), summary.getBuySummary().getAvg(), 0.0001);
+                    assertEquals(sellOrders.size(), summary.getSellSummary().getCount());
+                    assertEquals(min(sellOrders), summary.getSellSummary().getMin());
+                    assertEquals(max(sellOrders), summary.getSellSummary().getMax());
+                    assertEquals(avg(sellOrders), summary.getSellSummary().getAvg(), 0.0001);
+                }
+            }
+        }
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that repeated and close prices compress well below eight bytes per price")
+    public void givenSimilarPrices_whenWriteArchive_thenArchiveIsCompact() throws IOException {
+        List<OrderEntity> orders = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            orders.add(order(i + 1, firstDate, "SAVE", i % 2 == 0 ? BUY : SELL, 100, 235.0 + (i % 4) * 0.5));
+        }
+
+        Path file = writeArchive(orders, ColumnarArchiveWriter.DEFAULT_BLOCK_SIZE);
+
+        // raw rows would need at least 8 bytes for the price alone
+        assertTrue(Files.size(file) < orders.size() * 8L);
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that paging through a ticker's archived orders returns every order once in (date, id) order")
+    public void givenArchivedOrders_whenFindPage_thenReturnTickerOrdersInOrder() throws IOException {
+        List<OrderEntity> orders = generateOrders(5_000);
+        Path file = writeArchive(orders, 256);
+        LocalDate to = firstDate.plusDays(3);
+        List<OrderEntity> expected = orders.stream()
+                .filter(order -> order.getTicker().equals("SAVE") && !order.getDate().isAfter(to))
+                .toList();
+
+        List<OrderEntity> listed = new ArrayList<>();
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            LocalDate afterDate = firstDate;
+            long afterId = 0;
+            List<OrderEntity> page;
+            do {
+                page = reader.findPage("SAVE", afterDate, afterId, to, 100);
+                listed.addAll(page);
+                if (!page.isEmpty()) {
+                    afterDate = page.get(page.size() - 1).getDate();
+                    afterId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == 100);
+        }
+
+        assertEquals(expected.stream().map(OrderEntity::getId).toList(), listed.stream().map(OrderEntity::getId).toList());
+        OrderEntity first = listed.get(0);
+        OrderEntity original = expected.get(0);
+        assertEquals(original.getDate(), first.getDate());
+        assertEquals(original.getOrderSide(), first.getOrderSide());
+        assertEquals(original.getVolume(), first.getVolume());
+        assertEquals(original.getPrice(), first.getPrice());
+        assertEquals(original.getCurrency(), first.getCurrency());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that an archive knows its days and hands back every order it holds")
+    public void givenArchivedOrders_whenContainsAndForEach_thenMatchOrders() throws IOException {
+        List<OrderEntity> orders = generateOrders(2_000);
+        Path file = writeArchive(orders, 128);
+
+        List<Long> ids = new ArrayList<>();
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            assertTrue(reader.contains(firstDate));
+            assertTrue(reader.contains(firstDate.plusDays(4)));
+            assertFalse(reader.contains(firstDate.plusDays(5)));
+            reader.forEach(order -> ids.add(order.getId()));
+        }
+
+        assertEquals(orders.stream().map(OrderEntity::getId).toList(), ids);
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that an unknown ticker or date gives no summary")
+    public void givenUnknownTickerOrDate_whenSummarize_thenReturnEmpty() throws IOException {
+        Path file = writeArchive(List.of(order(1, firstDate, "SAVE", BUY, 100, 235.0)), 16);
+
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            assertEquals(Optional.empty(), reader.summarize("TSLA", firstDate));
+            assertEquals(Optional.empty(), reader.summarize("SAVE", firstDate.plusDays(1)));
+        }
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that opening a file that is not an archive fails")
+    public void givenInvalidFile_whenOpen_thenThrowIOException() throws IOException {
+        Path file = directory.resolve("orders.csv");
+        Files.writeString(file, "id,date,ticker,order_side,volume,price,currency\n");
+
+        assertThrows(IOException.class, () -> ColumnarArchiveReader.open(file));
+    }
+
+    private Path writeArchive(List<OrderEntity> orders, int blockSize) throws IOException {
+        Path file = directory.resolve("orders.obca");
+        try (ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file, blockSize)) {
+            for (OrderEntity order : orders) {
+                writer.append(order);
+            }
+        }
+        return file;
+    }
+
+    private List<OrderEntity> generateOrders(int count) {
+        Random random = new Random(42);
+        List<OrderEntity> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDate date = firstDate.plusDays(i * 5L / count);
+            String ticker = TICKERS.get(random.nextInt(TICKERS.size()));
+            double price = Math.round((100 + random.nextGaussian() * 5) * 100) / 100.0;
+            orders.add(order(i + 1, date, ticker, random.nextBoolean() ? BUY : SELL, 1 + random.nextInt(1000), price));
+        }
+        return orders;
+    }
+
+    private static OrderEntity order(long id, LocalDate date, String ticker, OrderSide orderSide, long volume, double price) {
+        return OrderEntity.builder()
+                .id(id)
+                .date(date)
+                .ticker(ticker)
+                .orderSide(orderSide)
+                .volume(volume)
+                .price(price)
+                .currency("SEK")
+                .build();
+    }
+
+    private static List<OrderEntity> filter(List<OrderEntity> orders, String ticker, OrderSide orderSide, LocalDate date) {
+        return orders.stream()
+                .filter(order -> order.getTicker().equals(ticker) && order.getOrderSide() == orderSide && order.getDate().equals(date))
+                .toList();
+    }
+
+    private static double min(List<OrderEntity> orders) {
+        return orders.stream().mapToDouble(OrderEntity::getPrice).min().orElse(0);
+    }
+
+    private static double max(List<OrderEntity> orders) {
+        return orders.stream().mapToDouble(OrderEntity::getPrice).max().orElse(0);
+    }
+
+    private static double avg(List<OrderEntity> orders) {
+        return orders.stream().mapToDouble(OrderEntity::getPrice).average().orElse(0);
+    }
+}
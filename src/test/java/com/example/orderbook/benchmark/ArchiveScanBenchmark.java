@@ -0,0 +1,101 @@
+package com.example.orderbook.benchmark;
+
+import com.example.orderbook.archive.ColumnarArchiveReader;
+import com.example.orderbook.archive.ColumnarArchiveWriter;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import com.example.orderbook.service.entity.SummaryResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One month of archived orders in one file: summaries of a day, a scan of the whole month and a listing page
+ * Prints the size of the archive per order next to the bytes an InnoDB row of the orders table takes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArchiveScanBenchmark {
+
+    private static final int DAYS = 30;
+    private static final int ORDERS_PER_DAY = 20_000;
+    private static final List<String> TICKERS = List.of("SAVE", "TSLA", "AAPL", "VOLV", "ERIC", "ABB", "INVE", "SEB",
+            "SHB", "SWED", "HM", "ATCO", "SAND", "SKF", "ESSI", "ALFA", "BOL", "TEL2", "NDA", "AZN");
+    // id, date, ticker, side, volume, price and currency columns plus the 18 byte row header and
+    // transaction fields of an InnoDB row, without page overhead or any index
+    private static final int ORDERS_ROW_BYTES = 8 + 3 + 4 + 4 + 8 + 8 + 3 + 18;
+
+    private final LocalDate firstDate = LocalDate.of(2024, 11, 1);
+    private Path directory;
+    private ColumnarArchiveReader reader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("archive-benchmark");
+        Path file = directory.resolve("orders-2024-11.obca");
+        Random random = new Random(42);
+        long id = 0;
+        try (ColumnarArchiveWriter writer = new ColumnarArchiveWriter(file)) {
+            for (int day = 0; day < DAYS; day++) {
+                for (int i = 0; i < ORDERS_PER_DAY; i++) {
+                    // two decimals around 100, so many orders share a price level like real limit orders do
+                    double price = Math.round((100 + random.nextGaussian() * 5) * 100) / 100.0;
+                    writer.append(OrderEntity.builder()
+                            .id(++id)
+                            .date(firstDate.plusDays(day))
+                            .ticker(TICKERS.get(random.nextInt(TICKERS.size())))
+                            .orderSide(random.nextBoolean() ? OrderSide.BUY : OrderSide.SELL)
+                            .volume(1L + random.nextInt(1000))
+                            .price(price)
+                            .currency("SEK")
+                            .build());
+                }
+            }
+        }
+        long size = Files.size(file);
+        System.out.printf("%n%d orders in %d bytes, %.1f bytes per order, %d bytes per orders table row, %.1fx smaller%n",
+                id, size, (double) size / id, ORDERS_ROW_BYTES, (double) ORDERS_ROW_BYTES * id / size);
+        reader = ColumnarArchiveReader.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        reader.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public Optional<SummaryResponse> summarizeDay() throws IOException {
+        return reader.summarize("SAVE", firstDate.plusDays(DAYS / 2));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAYS)
+    public void summarizeMonth(Blackhole blackhole) throws IOException {
+        for (int day = 0; day < DAYS; day++) {
+            blackhole.consume(reader.summarize("SAVE", firstDate.plusDays(day)));
+        }
+    }
+
+    @Benchmark
+    public List<OrderEntity> listingPage() throws IOException {
+        return reader.findPage("SAVE", firstDate.plusDays(DAYS / 2), 0, firstDate.plusDays(DAYS - 1), 1000);
+    }
+}
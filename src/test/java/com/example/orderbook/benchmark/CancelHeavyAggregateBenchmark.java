@@ -0,0 +1,75 @@
+package com.example.orderbook.benchmark;
+
+import com.example.orderbook.service.aggregate.PriceSummary;
+import com.example.orderbook.service.aggregate.SideAggregate;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.fx.FxRateTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cancel heavy day: every operation cancels a random active order, places a new one and reads the summary
+ * Compares keeping the aggregate up to date with rescanning the active orders of the day for every summary
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CancelHeavyAggregateBenchmark {
+
+    @Param({"1000", "100000"})
+    private int activeOrders;
+
+    private final FxRateTable rates = FxRateTable.empty();
+    private final Random random = new Random(42);
+    private double[] prices;
+    private List<OrderEntity> orders;
+    private SideAggregate aggregate;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        prices = new double[activeOrders];
+        orders = new ArrayList<>(activeOrders);
+        for (int i = 0; i < activeOrders; i++) {
+            prices[i] = nextPrice();
+            orders.add(OrderEntity.builder().currency("SEK").price(prices[i]).build());
+        }
+        aggregate = new SideAggregate(orders);
+    }
+
+    @Benchmark
+    public PriceSummary incrementalAggregate() {
+        int cancelled = random.nextInt(activeOrders);
+        aggregate.remove("SEK", prices[cancelled]);
+        prices[cancelled] = nextPrice();
+        aggregate.add("SEK", prices[cancelled]);
+        return aggregate.summarize(rates, null);
+    }
+
+    @Benchmark
+    public PriceSummary rescanActiveOrders() {
+        int cancelled = random.nextInt(activeOrders);
+        orders.set(cancelled, OrderEntity.builder().currency("SEK").price(nextPrice()).build());
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        for (OrderEntity order : orders) {
+            double price = order.getPrice();
+            min = Math.min(min, price);
+            max = Math.max(max, price);
+            sum += price;
+        }
+        return new PriceSummary(orders.size(), min, sum / orders.size(), max);
+    }
+
+    private double nextPrice() {
+        // two decimals around 100, so many orders share a price level like real limit orders do
+        return Math.round((100 + random.nextGaussian() * 5) * 100) / 100.0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.orderbook.benchmark;
+
+import com.example.orderbook.api.OrderValidator;
+import com.example.orderbook.api.binary.OrderFlyweight;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding and validating one order from the JSON request against the binary frame.
+ * Run with the gc profiler to see the allocation per order, see the benchmark profile in the pom.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderDecodingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private byte[] json;
+    private ByteBuffer frame;
+    private OrderFlyweight flyweight;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        json = """
+                {
+                  "ticker": "SAVE",
+                  "orderSide": "BUY",
+                  "volume": 100,
+                  "price": 235.5,
+                  "currency": "SEK"
+                }""".getBytes(StandardCharsets.UTF_8);
+        frame = ByteBuffer.allocate(OrderFlyweight.LENGTH);
+        OrderFlyweight.encode(frame, "SAVE", OrderFlyweight.BUY, 100, 235.5, "SEK");
+        flyweight = new OrderFlyweight();
+    }
+
+    @Benchmark
+    public OrderEntity json() throws IOException {
+        OrderEntity order = objectMapper.readValue(json, OrderEntity.class);
+        if (!OrderValidator.validate(order).isEmpty()) {
+            throw new IllegalStateException("The benchmark order must be valid");
+        }
+        return order;
+    }
+
+    @Benchmark
+    public boolean binaryValidateOnly() {
+        return flyweight.wrap(frame, 0).isValid();
+    }
+
+    @Benchmark
+    public OrderEntity binaryToEntityOnly() {
+        return flyweight.wrap(frame, 0).toEntity();
+    }
+
+    @Benchmark
+    public OrderEntity binary() {
+        if (!flyweight.wrap(frame, 0).isValid()) {
+            throw new IllegalStateException("The benchmark order must be valid");
+        }
+        return flyweight.toEntity();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.orderbook.benchmark;
+
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderListResponse;
+import com.example.orderbook.service.entity.OrderSide;
+import com.example.orderbook.service.entity.OrderStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding one page of GET /order as an array of order objects against the column form of OrderListResponse,
+ * with and without gzip as applied by server.compression. The payload sizes are printed once per trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderListingPayloadBenchmark {
+
+    @Param({"100", "5000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<OrderEntity> orders;
+
+    @Setup
+    public void setUp() throws IOException {
+        // same date handling as the Spring Boot object mapper
+        objectMapper = JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        Random random = new Random(42);
+        LocalDate date = LocalDate.of(2024, 11, 10);
+        orders = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            orders.add(OrderEntity.builder()
+                    .id(1_000_000L + i)
+                    .date(date)
+                    .ticker("SAVE")
+                    .orderSide(random.nextBoolean() ? OrderSide.BUY : OrderSide.SELL)
+                    .volume(1 + random.nextLong(1000))
+                    .price(Math.round((235 + random.nextGaussian() * 5) * 100) / 100.0)
+                    .currency("SEK")
+                    .status(random.nextInt(10) == 0 ? OrderStatus.CANCELLED : OrderStatus.ACTIVE)
+                    .build());
+        }
+        System.out.printf("%n%d orders: objects %d bytes (%d gzipped), columns %d bytes (%d gzipped)%n", pageSize,
+                objectArray().length, objectArrayGzip().length, columns().length, columnsGzip().length);
+    }
+
+    @Benchmark
+    public byte[] objectArray() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public byte[] columns() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(OrderListResponse.of("SAVE", orders, null));
+    }
+
+    @Benchmark
+    public byte[] objectArrayGzip() throws IOException {
+        return gzip(objectArray());
+    }
+
+    @Benchmark
+    public byte[] columnsGzip() throws IOException {
+        return gzip(columns());
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(json);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.orderbook.benchmark;
+
+import com.example.orderbook.api.OrderValidator;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand written order validator with the bean validation constraints it replaced
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private OrderEntity order;
+    private BeanValidatedOrder beanValidatedOrder;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        order = OrderEntity.builder()
+                .ticker("SAVE")
+                .orderSide(OrderSide.BUY)
+                .volume(100L)
+                .price(235.5)
+                .currency("SEK")
+                .build();
+        beanValidatedOrder = new BeanValidatedOrder("SAVE", "BUY", 100L, 235.5, "SEK");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BeanValidatedOrder>> beanValidation() {
+        return validator.validate(beanValidatedOrder);
+    }
+
+    @Benchmark
+    public Map<String, String> orderValidator() {
+        return OrderValidator.validate(order);
+    }
+
+    /**
+     * The constraints OrderEntity carried before the hand written validator
+     */
+    @AllArgsConstructor
+    public static class BeanValidatedOrder {
+        @NotNull(message = "An order must contain a ticker")
+        @Size(min = 1, max = 4, message = "Ticker must be between 1 and 4 characters")
+        String ticker;
+
+        @NotNull(message = "An order must contain an order side")
+        @Pattern(regexp = "^(BUY|SELL)$", message = "Order side must be BUY or SELL")
+        String orderSide;
+
+        @NotNull(message = "An order must specify volume")
+        @Positive(message = "Volume must be positive")
+        Long volume;
+
+        @NotNull(message = "An order must contain price information")
+        @Min(value = 0, message = "Price must be greater than or equal to 0")
+        Double price;
+
+        @NotNull(message = "An order must contain currency")
+        @Size(min = 1, max = 3, message = "Currency must be between 1 and 3 characters")
+        String currency;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.orderbook.benchmark;
+
+import com.example.orderbook.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Overhead of admission control per order, with limits high enough that every request is admitted
+ * Compares all threads sharing one client key (every request contends on the same bucket),
+ * every thread using its own key, and the limiter switched off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private RateLimiter rateLimiter;
+    private RateLimiter disabled;
+
+    @State(Scope.Thread)
+    public static class Client {
+        String key;
+
+        @Setup
+        public void setUp(RateLimiterBenchmark benchmark) {
+            key = "client-" + benchmark.threads.incrementAndGet();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter(true, 1e9, 1_000_000, 1e9, 1_000_000, 100_000, Set.of(), new SimpleMeterRegistry());
+        disabled = new RateLimiter(false, 1e9, 1_000_000, 1e9, 1_000_000, 100_000, Set.of(), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public long sharedClientKey() {
+        return rateLimiter.acquireClient("shared") + rateLimiter.acquireTicker("SAVE");
+    }
+
+    @Benchmark
+    public long ownClientKey(Client client) {
+        return rateLimiter.acquireClient(client.key) + rateLimiter.acquireTicker(client.key);
+    }
+
+    @Benchmark
+    public long disabledLimiter(Client client) {
+        return disabled.acquireClient(client.key) + disabled.acquireTicker(client.key);
+    }
+}
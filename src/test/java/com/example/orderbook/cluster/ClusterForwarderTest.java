@@ -0,0 +1,98 @@
+package com.example.orderbook.cluster;
+
+import com.example.orderbook.api.exceptionhandling.ForwardedRequestException;
+import com.example.orderbook.api.exceptionhandling.NodeUnavailableException;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.net.SocketTimeoutException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withException;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class ClusterForwarderTest {
+
+    private final ClusterNode owner = new ClusterNode("node-2", "http://localhost:8081");
+
+    private MockRestServiceServer server;
+    private ClusterForwarder clusterForwarder;
+
+    @BeforeEach
+    public void setUp() {
+        ClusterProperties clusterProperties = new ClusterProperties();
+        clusterProperties.setNodeId("node-1");
+        RestClient.Builder restClientBuilder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(restClientBuilder).build();
+        clusterForwarder = new ClusterForwarder(restClientBuilder.build(), clusterProperties);
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a forwarded order is answered with the owner's order")
+    public void givenOwnerAccepts_whenForwardOrder_thenReturnOwnersOrder() {
+        server.expect(requestTo("http://localhost:8081/order"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(ClusterForwarder.FORWARDED_HEADER, "node-1"))
+                .andRespond(withSuccess("{\"id\":7,\"ticker\":\"SAVE\",\"orderSide\":\"BUY\",\"volume\":100,\"price\":235.0,\"currency\":\"SEK\"}",
+                        MediaType.APPLICATION_JSON));
+
+        OrderEntity order = clusterForwarder.forwardOrder(owner, order(), null);
+
+        assertEquals(7L, order.getId());
+        server.verify();
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that the owner's rejection of a forwarded request is handed on unchanged")
+    public void givenOwnerRejects_whenForwardOrder_thenThrowForwardedRequestException() {
+        server.expect(requestTo("http://localhost:8081/order"))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body("{\"status\":\"ERROR\"}"));
+
+        ForwardedRequestException exception = assertThrows(ForwardedRequestException.class,
+                () -> clusterForwarder.forwardOrder(owner, order(), null));
+
+        assertEquals(400, exception.getStatus());
+        assertEquals("{\"status\":\"ERROR\"}", new String(exception.getBody()));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a server error of the owner makes the owner unavailable")
+    public void givenOwnerFails_whenForwardSummary_thenThrowNodeUnavailableException() {
+        server.expect(requestTo("http://localhost:8081/order/summary?ticker=SAVE&date=2024-11-10"))
+                .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertThrows(NodeUnavailableException.class,
+                () -> clusterForwarder.forwardSummary(owner, "SAVE", LocalDate.of(2024, 11, 10), null));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that an owner that does not answer in time is unavailable")
+    public void givenOwnerTimesOut_whenForwardCancel_thenThrowNodeUnavailableException() {
+        server.expect(requestTo("http://localhost:8081/order/1"))
+                .andRespond(withException(new SocketTimeoutException("Read timed out")));
+
+        assertThrows(NodeUnavailableException.class, () -> clusterForwarder.forwardCancel(owner, 1L));
+    }
+
+    private static OrderEntity order() {
+        return OrderEntity.builder().ticker("SAVE").orderSide(OrderSide.BUY).volume(100L).price(235.0).currency("SEK").build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.orderbook.cluster;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsistentHashRingTest {
+
+    private final ClusterNode first = new ClusterNode("node-1", "http://localhost:8080");
+    private final ClusterNode second = new ClusterNode("node-2", "http://localhost:8081");
+    private final ClusterNode third = new ClusterNode("node-3", "http://localhost:8082");
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that tickers are spread over all nodes")
+    public void givenThreeNodes_whenOwnerOf_thenEveryNodeOwnsTickers() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(first, second, third), 128);
+
+        Map<ClusterNode, Integer> owned = new HashMap<>();
+        for (String ticker : tickers(3000)) {
+            owned.merge(ring.ownerOf(ticker), 1, Integer::sum);
+        }
+
+        assertEquals(3, owned.size());
+        owned.values().forEach(count -> assertTrue(count > 600, "Uneven distribution: " + owned));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that every instance computes the same owner regardless of member order")
+    public void givenMembersInDifferentOrder_whenOwnerOf_thenSameOwner() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(first, second, third), 64);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of(third, first, second), 64);
+
+        for (String ticker : tickers(500)) {
+            assertEquals(ring.ownerOf(ticker), reordered.ownerOf(ticker));
+        }
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a joining node only takes over tickers, other tickers keep their owner")
+    public void givenNewNode_whenRebalance_thenOnlyTickersMovingToNewNodeChangeOwner() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of(first, second), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of(first, second, third), 128);
+
+        int moved = 0;
+        List<String> tickers = tickers(3000);
+        for (String ticker : tickers) {
+            ClusterNode newOwner = after.ownerOf(ticker);
+            if (!before.ownerOf(ticker).equals(newOwner)) {
+                assertEquals(third, newOwner);
+                moved++;
+            }
+        }
+        assertTrue(moved > 0 && moved < tickers.size() / 2, "Moved tickers: " + moved);
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that an empty ring cannot assign owners")
+    public void givenNoMembers_whenOwnerOf_thenThrowIllegalStateException() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(), 128);
+
+        assertTrue(ring.isEmpty());
+        assertThrows(IllegalStateException.class, () -> ring.ownerOf("SAVE"));
+    }
+
+    private static List<String> tickers(int count) {
+        List<String> tickers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tickers.add(Integer.toString(i, 36).toUpperCase());
+        }
+        return tickers;
+    }
+}
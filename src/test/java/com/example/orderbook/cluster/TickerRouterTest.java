@@ -0,0 +1,46 @@
+package com.example.orderbook.cluster;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TickerRouterTest {
+
+    private final ClusterNode first = new ClusterNode("node-1", "http://localhost:8080");
+    private final ClusterNode second = new ClusterNode("node-2", "http://127.0.0.1:8081");
+    private final ClusterNode remote = new ClusterNode("node-3", "http://192.0.2.10:8080");
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that forwarded requests are trusted only from another member's host")
+    public void givenForwardedBy_whenIsTrustedForwarder_thenOnlyMembersFromTheirHostAreTrusted() {
+        TickerRouter tickerRouter = router("node-1", true);
+
+        assertTrue(tickerRouter.isTrustedForwarder("node-2", "127.0.0.1"));
+        assertFalse(tickerRouter.isTrustedForwarder("node-3", "127.0.0.1"));
+        assertFalse(tickerRouter.isTrustedForwarder("node-1", "127.0.0.1"));
+        assertFalse(tickerRouter.isTrustedForwarder("stranger", "127.0.0.1"));
+        assertFalse(router("node-1", false).isTrustedForwarder("node-2", "127.0.0.1"));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the member with the lowest id is the leader")
+    public void givenCluster_whenIsLeader_thenLowestIdLeads() {
+        assertTrue(router("node-1", true).isLeader());
+        assertFalse(router("node-2", true).isLeader());
+        assertTrue(router("node-2", false).isLeader());
+    }
+
+    private TickerRouter router(String nodeId, boolean enabled) {
+        ClusterProperties clusterProperties = new ClusterProperties();
+        clusterProperties.setEnabled(enabled);
+        clusterProperties.setNodeId(nodeId);
+        clusterProperties.setNodes(List.of(first, second, remote));
+        return new TickerRouter(clusterProperties, new StaticClusterMembership(clusterProperties.getNodes()));
+    }
+}
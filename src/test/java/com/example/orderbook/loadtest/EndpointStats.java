@@ -0,0 +1,73 @@
+package com.example.orderbook.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and response statuses of one endpoint, safe to record from the http client threads
+ */
+final class EndpointStats {
+
+    static final int FAILED = -1;
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String name;
+    private final Recorder latencies = new Recorder(3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param latencyNanos time from the intended start of the request, not from when it was actually sent
+     * @param status       http status, or {@link #FAILED} when no response was received
+     */
+    void record(long latencyNanos, int status) {
+        latencies.recordValue(latencyNanos);
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * The request was not sent since too many requests were outstanding
+     */
+    void dropped() {
+        dropped.increment();
+    }
+
+    void report(PrintStream out, Path outputDirectory) throws IOException {
+        Histogram histogram = latencies.getIntervalHistogram();
+        Map<Integer, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+
+        out.printf("%-14s %8d requests  p50 %9.3f ms  p90 %9.3f ms  p99 %9.3f ms  p99.9 %9.3f ms  max %9.3f ms  statuses %s  dropped %d%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                histogram.getMaxValue() / NANOS_PER_MILLI,
+                statusCounts,
+                dropped.sum());
+
+        if (outputDirectory != null) {
+            Files.createDirectories(outputDirectory);
+            // .hgrm files can be compared between runs with the HdrHistogram plotter
+            try (PrintStream file = new PrintStream(Files.newOutputStream(outputDirectory.resolve(name + ".hgrm")))) {
+                histogram.outputPercentileDistribution(file, NANOS_PER_MILLI);
+            }
+        }
+    }
+}
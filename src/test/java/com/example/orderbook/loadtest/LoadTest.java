@@ -0,0 +1,212 @@
+package com.example.orderbook.loadtest;
+
+import com.example.orderbook.OrderBookApplication;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends orders, order lookups and summary requests to the REST API at a fixed rate and reports the latency per endpoint
+ * <p>
+ * Requests are scheduled open loop: request n is due at start + n / rate whether or not earlier requests have been
+ * answered, and its latency is measured from that due time. A stalled server therefore shows up as latency for every
+ * request that should have been sent during the stall, instead of silently lowering the rate (coordinated omission).
+ * <p>
+ * Without --target the application is started in this JVM with the loadtest profile, on an in-memory database.
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.options="--rate=2000 --duration=PT2M --tickers=500 --zipf-exponent=1.1"
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.options="--replay=src/test/resources/loadtest/sample-order-flow.csv"
+ * </pre>
+ * Options: --rate (requests per second), --duration, --warmup, --replay (order flow file, see {@link ReplayOrderFlow}),
+ * --tickers and --zipf-exponent (synthetic flow), --mix (percent of POST /order, GET /order/{id} and GET /order/summary),
+ * --target (base url of a running instance), --max-in-flight, --output (directory for .hgrm files), --seed
+ */
+public final class LoadTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final int RECENT_IDS = 4096;
+
+    private final Map<String, String> options;
+    private final URI target;
+    private final OrderFlow orderFlow;
+    private final Random random;
+    private final int postPercent;
+    private final int getPercent;
+    private final int maxInFlight;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLongArray recentIds = new AtomicLongArray(RECENT_IDS);
+    private final AtomicLong createdOrders = new AtomicLong();
+    private EndpointStats createOrder;
+    private EndpointStats getOrder;
+    private EndpointStats getSummary;
+
+    LoadTest(Map<String, String> options, URI target) throws IOException {
+        this.options = options;
+        this.target = target;
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.random = new Random(seed);
+        this.orderFlow = options.containsKey("replay")
+                ? ReplayOrderFlow.read(Path.of(options.get("replay")))
+                : new ZipfOrderFlow(Integer.parseInt(options.getOrDefault("tickers", "100")),
+                        Double.parseDouble(options.getOrDefault("zipf-exponent", "1.0")), seed);
+        String[] mix = options.getOrDefault("mix", "70,20,10").split(",");
+        if (mix.length != 3 || Integer.parseInt(mix[0]) + Integer.parseInt(mix[1]) + Integer.parseInt(mix[2]) != 100) {
+            throw new IllegalArgumentException("--mix must be three percentages adding up to 100");
+        }
+        this.postPercent = Integer.parseInt(mix[0]);
+        this.getPercent = Integer.parseInt(mix[1]);
+        this.maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "10000"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        ConfigurableApplicationContext context = null;
+        URI target;
+        if (options.containsKey("target")) {
+            target = URI.create(options.get("target"));
+        } else {
+            context = new SpringApplicationBuilder(OrderBookApplication.class)
+                    .profiles("loadtest")
+                    // a command line argument, default properties would lose against server.port in application.yml
+                    .run("--server.port=0");
+            target = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+        }
+        try {
+            new LoadTest(options, target).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --option=value but was " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    void run() throws IOException, InterruptedException {
+        int rate = Integer.parseInt(options.getOrDefault("rate", "500"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT60S"));
+
+        System.out.printf("Warming up %s for %s at %d requests/s%n", target, warmup, rate);
+        phase(rate, warmup);
+        System.out.printf("Measuring for %s at %d requests/s%n", duration, rate);
+        phase(rate, duration);
+
+        Path output = options.containsKey("output") ? Path.of(options.get("output")) : null;
+        createOrder.report(System.out, output);
+        getOrder.report(System.out, output);
+        getSummary.report(System.out, output);
+    }
+
+    private void phase(int rate, Duration duration) throws InterruptedException {
+        createOrder = new EndpointStats("POST_order");
+        getOrder = new EndpointStats("GET_order_id");
+        getSummary = new EndpointStats("GET_summary");
+
+        long requests = rate * duration.toSeconds();
+        long start = System.nanoTime();
+        for (long n = 0; n < requests; n++) {
+            long dueAt = start + n * 1_000_000_000L / rate;
+            long wait;
+            while ((wait = dueAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            sendNext(dueAt);
+        }
+        long deadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void sendNext(long dueAt) {
+        int pick = random.nextInt(100);
+        long created = createdOrders.get();
+        if (pick < postPercent || created == 0) {
+            OrderEntity order = orderFlow.next();
+            HttpRequest request = HttpRequest.newBuilder(target.resolve("/order"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(toJson(order)))
+                    .build();
+            send(request, createOrder, dueAt, true);
+        } else if (pick < postPercent + getPercent) {
+            long id = recentIds.get(random.nextInt((int) Math.min(created, RECENT_IDS)));
+            send(HttpRequest.newBuilder(target.resolve("/order/" + id)).timeout(REQUEST_TIMEOUT).GET().build(), getOrder, dueAt, false);
+        } else {
+            String query = "/order/summary?ticker=" + orderFlow.next().getTicker() + "&date=" + LocalDate.now();
+            send(HttpRequest.newBuilder(target.resolve(query)).timeout(REQUEST_TIMEOUT).GET().build(), getSummary, dueAt, false);
+        }
+    }
+
+    private void send(HttpRequest request, EndpointStats stats, long dueAt, boolean rememberId) {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            stats.dropped();
+            return;
+        }
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+            stats.record(System.nanoTime() - dueAt, failure == null ? response.statusCode() : EndpointStats.FAILED);
+            if (rememberId && failure == null && response.statusCode() == 201) {
+                rememberId(response.body());
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private void rememberId(String body) {
+        try {
+            long id = objectMapper.readTree(body).path("id").asLong();
+            recentIds.set((int) (createdOrders.getAndIncrement() % RECENT_IDS), id);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toJson(OrderEntity order) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("ticker", order.getTicker());
+        body.put("orderSide", order.getOrderSide());
+        body.put("volume", order.getVolume());
+        body.put("price", order.getPrice());
+        body.put("currency", order.getCurrency());
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
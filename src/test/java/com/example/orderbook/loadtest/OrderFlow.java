@@ -0,0 +1,11 @@
+package com.example.orderbook.loadtest;
+
+import com.example.orderbook.service.entity.OrderEntity;
+
+/**
+ * Source of the orders sent by the load test, only called from the scheduling thread
+ */
+interface OrderFlow {
+
+    OrderEntity next();
+}
@@ -0,0 +1,64 @@
+package com.example.orderbook.loadtest;
+
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderFlowTest {
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the synthetic flow favours low ranked tickers")
+    public void givenZipfFlow_whenDrawingTickers_thenLowRanksAreMostFrequent() {
+        ZipfOrderFlow flow = new ZipfOrderFlow(100, 1.0, 42);
+        int[] counts = new int[100];
+        for (int i = 0; i < 100_000; i++) {
+            counts[flow.nextRank()]++;
+        }
+
+        // with exponent 1 the first ticker is drawn about twice as often as the second and 1 / H(100) = 19% of the time
+        assertEquals(0.19, counts[0] / 100_000.0, 0.01);
+        assertEquals(2.0, (double) counts[0] / counts[1], 0.1);
+        assertTrue(counts[1] > counts[99]);
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that synthetic tickers fit the four characters a ticker may have")
+    public void givenHighestRank_whenTickerOf_thenFourCharacters() {
+        assertEquals("Z000", ZipfOrderFlow.tickerOf(0));
+        assertEquals("ZZZZ", ZipfOrderFlow.tickerOf(ZipfOrderFlow.MAX_TICKERS - 1));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a replayed flow starts over after the last order")
+    public void givenReplayFlow_whenExhausted_thenStartsOver() {
+        OrderEntity first = ReplayOrderFlow.parse("SAVE,BUY,100,235.0,SEK", Path.of("flow.csv"), 1);
+        OrderEntity second = ReplayOrderFlow.parse("TSLA,SELL,5,180.5,USD", Path.of("flow.csv"), 2);
+        ReplayOrderFlow flow = new ReplayOrderFlow(List.of(first, second));
+
+        assertSame(first, flow.next());
+        assertSame(second, flow.next());
+        assertSame(first, flow.next());
+        assertEquals(OrderSide.SELL, second.getOrderSide());
+        assertEquals(180.5, second.getPrice());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a malformed line is reported with its line number")
+    public void givenMalformedLine_whenParse_thenReportLineNumber() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ReplayOrderFlow.parse("SAVE,HOLD,100,235.0,SEK", Path.of("flow.csv"), 7));
+
+        assertTrue(exception.getMessage().startsWith("flow.csv:7"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.orderbook.loadtest;
+
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays recorded orders in file order, starting over at the end of the file
+ * One order per line: ticker,orderSide,volume,price,currency
+ * Empty lines, lines starting with # and a header line starting with "ticker" are skipped
+ */
+final class ReplayOrderFlow implements OrderFlow {
+
+    private final List<OrderEntity> orders;
+    private int next;
+
+    ReplayOrderFlow(List<OrderEntity> orders) {
+        if (orders.isEmpty()) {
+            throw new IllegalArgumentException("The order flow contains no orders");
+        }
+        this.orders = orders;
+    }
+
+    static ReplayOrderFlow read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        List<OrderEntity> orders = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith("ticker")) {
+                continue;
+            }
+            orders.add(parse(line, file, i + 1));
+        }
+        return new ReplayOrderFlow(orders);
+    }
+
+    static OrderEntity parse(String line, Path file, int lineNumber) {
+        String[] fields = line.split(",");
+        if (fields.length != 5) {
+            throw new IllegalArgumentException(file + ":" + lineNumber + " expected ticker,orderSide,volume,price,currency but was " + line);
+        }
+        try {
+            return OrderEntity.builder()
+                    .ticker(fields[0].strip())
+                    .orderSide(OrderSide.valueOf(fields[1].strip()))
+                    .volume(Long.parseLong(fields[2].strip()))
+                    .price(Double.parseDouble(fields[3].strip()))
+                    .currency(fields[4].strip())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(file + ":" + lineNumber + " " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public OrderEntity next() {
+        OrderEntity order = orders.get(next);
+        next = next + 1 == orders.size() ? 0 : next + 1;
+        return order;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.orderbook.loadtest;
+
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Synthetic orders with Zipf distributed tickers, the ticker of rank k is picked with probability proportional to 1/k^exponent
+ * Prices stay within a few percent of a fixed price per ticker, so most orders pass the deviation rule
+ */
+final class ZipfOrderFlow implements OrderFlow {
+
+    static final int MAX_TICKERS = 36 * 36 * 36;
+
+    private final double[] cumulativeProbabilities;
+    private final String[] tickers;
+    private final double[] basePrices;
+    private final Random random;
+
+    ZipfOrderFlow(int tickerCount, double exponent, long seed) {
+        if (tickerCount < 1 || tickerCount > MAX_TICKERS) {
+            throw new IllegalArgumentException("The number of tickers must be between 1 and " + MAX_TICKERS);
+        }
+        cumulativeProbabilities = new double[tickerCount];
+        tickers = new String[tickerCount];
+        basePrices = new double[tickerCount];
+        double total = 0;
+        for (int rank = 0; rank < tickerCount; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cumulativeProbabilities[rank] = total;
+            tickers[rank] = tickerOf(rank);
+            basePrices[rank] = 10 + (rank * 7919L) % 990;
+        }
+        for (int rank = 0; rank < tickerCount; rank++) {
+            cumulativeProbabilities[rank] /= total;
+        }
+        random = new Random(seed);
+    }
+
+    @Override
+    public OrderEntity next() {
+        int rank = nextRank();
+        double price = basePrices[rank] * (1 + random.nextGaussian() * 0.02);
+        return OrderEntity.builder()
+                .ticker(tickers[rank])
+                .orderSide(random.nextBoolean() ? OrderSide.BUY : OrderSide.SELL)
+                .volume(1 + (long) random.nextInt(1000))
+                .price(Math.round(price * 100) / 100.0)
+                .currency("USD")
+                .build();
+    }
+
+    int nextRank() {
+        int rank = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+        rank = rank < 0 ? -rank - 1 : rank;
+        return Math.min(rank, cumulativeProbabilities.length - 1);
+    }
+
+    static String tickerOf(int rank) {
+        // "Z" and three base 36 digits, always within the four characters a ticker may have
+        String digits = Integer.toString(rank, 36).toUpperCase();
+        return "Z" + "0".repeat(3 - digits.length()) + digits;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.orderbook.ratelimit;
+
+import com.example.orderbook.api.exceptionhandling.RateLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a bucket admits its burst at once and then one request per emission interval")
+    public void givenBurstUsed_whenAcquire_thenAdmittedAgainAfterEmissionInterval() {
+        GcraLimit limit = new GcraLimit(10, 3);
+        AtomicLong bucket = new AtomicLong();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limit.acquire(bucket, 0));
+        }
+
+        assertEquals(100_000_000, limit.acquire(bucket, 0));
+        assertEquals(0, limit.acquire(bucket, 100_000_000));
+        assertTrue(limit.acquire(bucket, 100_000_000) > 0);
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a bucket is idle once it has refilled completely")
+    public void givenRefilledBucket_whenIsIdle_thenTrue() {
+        GcraLimit limit = new GcraLimit(10, 3);
+        AtomicLong bucket = new AtomicLong();
+
+        limit.acquire(bucket, 0);
+
+        assertFalse(GcraLimit.isIdle(bucket, 50_000_000));
+        assertTrue(GcraLimit.isIdle(bucket, 100_000_000));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a client over its limit is rejected with a retry after of at least one second")
+    public void givenClientOverLimit_whenAdmitClient_thenRateLimitExceeded() {
+        RateLimiter rateLimiter = new RateLimiter(true, 1, 2, 0, 0, 100, Set.of(), meterRegistry);
+
+        rateLimiter.admitClient("client-1");
+        rateLimiter.admitClient("client-1");
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class, () -> rateLimiter.admitClient("client-1"));
+
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> rateLimiter.admitClient("client-2"));
+        assertEquals(1, meterRegistry.get("orderbook.rate_limit.requests").tag("scope", "client").tag("outcome", "rejected").counter().count());
+        assertEquals(3, meterRegistry.get("orderbook.rate_limit.requests").tag("scope", "client").tag("outcome", "admitted").counter().count());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that an order rejected by the ticker limit does not use up the client limit")
+    public void givenTickerOverLimit_whenAdmit_thenClientPermitIsGivenBack() {
+        RateLimiter rateLimiter = new RateLimiter(true, 1, 1, 1, 1, 100, Set.of(), meterRegistry);
+
+        rateLimiter.admit("client-1", "SAVE");
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class, () -> rateLimiter.admit("client-2", "SAVE"));
+
+        assertEquals("Too many orders for ticker SAVE, slow down", exception.getMessage());
+        assertTrue(rateLimiter.acquire("client-1", "TSLA") > 0);
+        assertEquals(0, rateLimiter.acquire("client-2", "TSLA"));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the ticker limit is off with a rate of 0 and everything is admitted when disabled")
+    public void givenLimitsOff_whenAcquire_thenAlwaysAdmitted() {
+        RateLimiter tickerLimitOff = new RateLimiter(true, 1, 1, 0, 0, 100, Set.of(), meterRegistry);
+        RateLimiter disabled = new RateLimiter(false, 1, 1, 1, 1, 100, Set.of(), new SimpleMeterRegistry());
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, tickerLimitOff.acquireTicker("SAVE"));
+            assertEquals(0, disabled.acquireClient("client-1"));
+            assertEquals(0, disabled.acquireTicker("SAVE"));
+        }
+        assertEquals(0, tickerLimitOff.size());
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that keys beyond the maximum share the overflow bucket")
+    public void givenMaxKeysReached_whenAcquireNewKey_thenOverflowBucketIsShared() {
+        RateLimiter rateLimiter = new RateLimiter(true, 1, 1, 0, 0, 1, Set.of(), meterRegistry);
+
+        assertEquals(0, rateLimiter.acquireClient("client-1"));
+        assertEquals(0, rateLimiter.acquireClient("client-2"));
+        assertTrue(rateLimiter.acquireClient("client-3") > 0);
+        assertEquals(2, rateLimiter.size());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that idle buckets are swept before a new key falls back to the overflow bucket")
+    public void givenMaxKeysReachedByIdleKeys_whenAcquireNewKey_thenNewKeyGetsOwnBucket() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(true, 1000, 1, 0, 0, 1, Set.of(), meterRegistry);
+
+        assertEquals(0, rateLimiter.acquireClient("client-1"));
+        Thread.sleep(5);
+
+        assertEquals(0, rateLimiter.acquireClient("client-2"));
+        assertTrue(rateLimiter.acquireClient("client-2") > 0);
+        assertEquals(1, rateLimiter.size());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that only configured API keys identify a client, anything else is limited by address")
+    public void givenUnknownApiKeys_whenClientKey_thenAddressIsUsed() {
+        RateLimiter rateLimiter = new RateLimiter(true, 1, 1, 0, 0, 100, Set.of("known"), meterRegistry);
+
+        assertEquals("key:known", rateLimiter.clientKey("known", "192.0.2.1"));
+        assertEquals("192.0.2.1", rateLimiter.clientKey("rotated-1", "192.0.2.1"));
+        assertEquals("192.0.2.1", rateLimiter.clientKey(null, "192.0.2.1"));
+
+        rateLimiter.admitClient(rateLimiter.clientKey("rotated-1", "192.0.2.1"));
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.admitClient(rateLimiter.clientKey("rotated-2", "192.0.2.1")));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that buckets of idle keys are swept")
+    public void givenIdleKeys_whenEvictIdle_thenBucketsAreRemoved() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter(true, 1000, 1, 1000, 1, 100, Set.of(), meterRegistry);
+
+        rateLimiter.acquireClient("client-1");
+        rateLimiter.acquireTicker("SAVE");
+        assertEquals(2.0, meterRegistry.get("orderbook.rate_limit.keys").tag("scope", "client").gauge().value()
+                + meterRegistry.get("orderbook.rate_limit.keys").tag("scope", "ticker").gauge().value());
+
+        // one emission interval is 1 ms, after that both buckets are full again
+        Thread.sleep(5);
+        rateLimiter.evictIdle();
+
+        assertEquals(0, rateLimiter.size());
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.orderbook.service;
+
+import com.example.orderbook.cluster.TickerRouter;
+import com.example.orderbook.repository.DailySummaryRepository;
+import com.example.orderbook.repository.OrderRepository;
+import com.example.orderbook.service.entity.DailySummaryEntity;
+import com.example.orderbook.service.entity.DayLockEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DailyRollupServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private DailySummaryRepository dailySummaryRepository;
+
+    @Mock
+    private OrderArchiver orderArchiver;
+
+    @Mock
+    private DayLocks dayLocks;
+
+    @Mock
+    private TickerRouter tickerRouter;
+
+    private DailyRollupService dailyRollupService;
+
+    @BeforeEach
+    public void setUp() {
+        dailyRollupService = new DailyRollupService(orderRepository, dailySummaryRepository, orderArchiver, dayLocks, tickerRouter, true);
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that only closed days after the last rolled up day are summarized")
+    public void givenLastRolledUpDay_whenRollUpClosedDays_thenSummarizeNewDaysOnly() {
+        LocalDate today = LocalDate.now();
+        LocalDate lastRolledUp = today.minusDays(3);
+        LocalDate firstOpen = today.minusDays(2);
+        LocalDate secondOpen = today.minusDays(1);
+        List<DailySummaryEntity> firstSummaries = List.of(new DailySummaryEntity("TSLA", OrderSide.BUY, firstOpen, 1L, 10.0, 10.0, 10.0));
+        List<DailySummaryEntity> secondSummaries = List.of(new DailySummaryEntity("TSLA", OrderSide.BUY, secondOpen, 1L, 11.0, 11.0, 11.0));
+
+        when(tickerRouter.isLeader()).thenReturn(true);
+        whenDayLocked();
+        when(dailySummaryRepository.findLatestDate()).thenReturn(Optional.of(lastRolledUp), Optional.of(secondOpen));
+        when(orderRepository.findDistinctDatesBetween(lastRolledUp, today)).thenReturn(List.of(firstOpen, secondOpen));
+        when(orderRepository.summarizeDate(firstOpen)).thenReturn(firstSummaries);
+        when(orderRepository.summarizeDate(secondOpen)).thenReturn(secondSummaries);
+
+        dailyRollupService.rollUpClosedDays();
+
+        InOrder inOrder = inOrder(dailySummaryRepository, orderArchiver);
+        inOrder.verify(dailySummaryRepository).deleteAllByDate(firstOpen);
+        inOrder.verify(dailySummaryRepository).saveAll(firstSummaries);
+        inOrder.verify(dailySummaryRepository).deleteAllByDate(secondOpen);
+        inOrder.verify(dailySummaryRepository).saveAll(secondSummaries);
+        inOrder.verify(orderArchiver).archiveClosedDays(secondOpen);
+        verify(dailySummaryRepository, never()).deleteAllByDate(lastRolledUp);
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that rolling up the same day twice replaces the earlier rows")
+    public void givenRolledUpDay_whenRollUpAgain_thenReplaceRows() {
+        LocalDate date = LocalDate.now().minusDays(1);
+        List<DailySummaryEntity> summaries = List.of(new DailySummaryEntity("TSLA", OrderSide.SELL, date, 2L, 10.0, 12.0, 22.0));
+
+        when(orderRepository.summarizeDate(date)).thenReturn(summaries);
+        whenDayLocked();
+
+        dailyRollupService.rollUp(date);
+        dailyRollupService.rollUp(date);
+
+        InOrder inOrder = inOrder(dailySummaryRepository);
+        inOrder.verify(dailySummaryRepository).deleteAllByDate(date);
+        inOrder.verify(dailySummaryRepository).saveAll(summaries);
+        inOrder.verify(dailySummaryRepository).deleteAllByDate(date);
+        inOrder.verify(dailySummaryRepository).saveAll(summaries);
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that only the cluster leader rolls up the shared database")
+    public void givenNotLeader_whenRollUpClosedDays_thenNothingIsRolledUp() {
+        when(tickerRouter.isLeader()).thenReturn(false);
+
+        dailyRollupService.rollUpClosedDays();
+
+        verifyNoInteractions(orderRepository, dailySummaryRepository, orderArchiver);
+    }
+
+    private void whenDayLocked() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<DayLockEntity>>getArgument(1).accept(new DayLockEntity(invocation.getArgument(0), false));
+            return null;
+        }).when(dayLocks).executeWithoutResult(any(), any());
+    }
+}
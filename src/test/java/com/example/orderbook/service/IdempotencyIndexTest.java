@@ -0,0 +1,59 @@
+package com.example.orderbook.service;
+
+import com.example.orderbook.service.entity.OrderEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyIndexTest {
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a key is kept until its bucket comes around again")
+    public void givenKey_whenRotateThroughAllBuckets_thenKeyExpires() {
+        IdempotencyIndex idempotencyIndex = new IdempotencyIndex(3, 10);
+        OrderEntity order = OrderEntity.builder().id(1L).build();
+
+        idempotencyIndex.put("key", order);
+        idempotencyIndex.rotate();
+        idempotencyIndex.rotate();
+
+        assertEquals(Optional.of(order), idempotencyIndex.get("key"));
+
+        idempotencyIndex.rotate();
+
+        assertEquals(Optional.empty(), idempotencyIndex.get("key"));
+        assertEquals(0, idempotencyIndex.size());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the first order stored for a key wins")
+    public void givenKeyStoredTwice_whenGet_thenReturnFirstOrder() {
+        IdempotencyIndex idempotencyIndex = new IdempotencyIndex(3, 10);
+        OrderEntity first = OrderEntity.builder().id(1L).build();
+
+        idempotencyIndex.put("key", first);
+        idempotencyIndex.put("key", OrderEntity.builder().id(2L).build());
+
+        assertSame(first, idempotencyIndex.get("key").orElseThrow());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that the index does not grow beyond its maximum number of keys")
+    public void givenFullIndex_whenPut_thenKeyIsNotStored() {
+        IdempotencyIndex idempotencyIndex = new IdempotencyIndex(3, 2);
+
+        idempotencyIndex.put("first", OrderEntity.builder().id(1L).build());
+        idempotencyIndex.put("second", OrderEntity.builder().id(2L).build());
+        idempotencyIndex.put("third", OrderEntity.builder().id(3L).build());
+
+        assertEquals(2, idempotencyIndex.size());
+        assertEquals(Optional.empty(), idempotencyIndex.get("third"));
+    }
+}
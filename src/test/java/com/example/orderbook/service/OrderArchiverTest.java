@@ -0,0 +1,133 @@
+package com.example.orderbook.service;
+
+import com.example.orderbook.repository.OrderRepository;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import com.example.orderbook.service.entity.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderArchiverTest {
+
+    private final static OrderStatus ACTIVE = OrderStatus.ACTIVE;
+    private final LocalDate firstDate = LocalDate.of(2024, 11, 4);
+    private final LocalDate secondDate = LocalDate.of(2024, 11, 5);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DayLocks dayLocks;
+
+    @TempDir
+    Path directory;
+
+    private OrderArchiver orderArchiver;
+
+    @BeforeEach
+    public void setUp() {
+        orderArchiver = new OrderArchiver(orderRepository, transactionManager, dayLocks, 30, directory);
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the days of a month are archived into one file and listed in (date, id) order")
+    public void givenTwoDaysOfMonth_whenArchiveClosedDays_thenBothDaysInOneFile() throws IOException {
+        when(orderRepository.findDistinctDatesBetween(LocalDate.EPOCH, secondDate.plusDays(1)))
+                .thenReturn(List.of(secondDate), List.of(firstDate));
+        when(orderRepository.getAllOrdersByDateAndStatusOrderById(firstDate, ACTIVE)).thenReturn(List.of(order(1, firstDate), order(2, firstDate)));
+        when(orderRepository.getAllOrdersByDateAndStatusOrderById(secondDate, ACTIVE)).thenReturn(List.of(order(3, secondDate)));
+
+        // the later day first, the earlier one has to be merged in front of it
+        orderArchiver.archiveClosedDays(secondDate);
+        orderArchiver.archiveClosedDays(secondDate);
+
+        assertEquals(List.of(directory.resolve("orders-2024-11.obca")), files());
+        assertTrue(orderArchiver.isArchived(firstDate));
+        assertTrue(orderArchiver.isArchived(secondDate));
+        assertFalse(orderArchiver.isArchived(secondDate.plusDays(1)));
+        assertEquals(List.of(1L, 2L, 3L), ids(orderArchiver.findPage("SAVE", firstDate, 0, secondDate, 10)));
+        assertEquals(List.of(3L), ids(orderArchiver.findPage("SAVE", firstDate, 2, secondDate, 10)));
+        assertEquals(List.of(1L, 2L), ids(orderArchiver.findOrders("SAVE", firstDate)));
+        verify(dayLocks).markArchived(firstDate);
+        verify(orderRepository).deleteAllByDate(firstDate);
+        verify(orderRepository).deleteAllByDate(secondDate);
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that archiving a day again replaces its orders instead of overwriting the month or adding them twice")
+    public void givenArchivedDay_whenArchivedAgain_thenOrdersAreNotDuplicated() throws IOException {
+        when(orderRepository.findDistinctDatesBetween(LocalDate.EPOCH, secondDate.plusDays(1)))
+                .thenReturn(List.of(firstDate), List.of(secondDate), List.of(firstDate));
+        when(orderRepository.getAllOrdersByDateAndStatusOrderById(firstDate, ACTIVE)).thenReturn(List.of(order(1, firstDate), order(2, firstDate)));
+        when(orderRepository.getAllOrdersByDateAndStatusOrderById(secondDate, ACTIVE)).thenReturn(List.of(order(3, secondDate)));
+
+        orderArchiver.archiveClosedDays(secondDate);
+        orderArchiver.archiveClosedDays(secondDate);
+        // the delete of the first day did not happen, so it comes up again
+        orderArchiver.archiveClosedDays(secondDate);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(orderArchiver.findPage("SAVE", firstDate, 0, secondDate, 10)));
+        assertEquals(List.of(directory.resolve("orders-2024-11.obca")), files());
+        verify(orderRepository, times(2)).deleteAllByDate(firstDate);
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that nothing is archived or listed from the archive when archiving is off")
+    public void givenNoRetention_whenFindPage_thenReturnEmpty() {
+        orderArchiver = new OrderArchiver(orderRepository, transactionManager, dayLocks, 0, directory);
+
+        orderArchiver.archiveClosedDays(secondDate);
+
+        assertEquals(List.of(), orderArchiver.findPage("SAVE", firstDate, 0, secondDate, 10));
+        assertFalse(orderArchiver.isArchived(firstDate));
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.toList();
+        }
+    }
+
+    private static List<Long> ids(List<OrderEntity> orders) {
+        return orders.stream().map(OrderEntity::getId).toList();
+    }
+
+    private static OrderEntity order(long id, LocalDate date) {
+        return OrderEntity.builder()
+                .id(id)
+                .date(date)
+                .ticker("SAVE")
+                .orderSide(OrderSide.BUY)
+                .volume(100L)
+                .price(235.0 + id)
+                .currency("SEK")
+                .status(ACTIVE)
+                .build();
+    }
+}
@@ -1,27 +1,60 @@
 package com.example.orderbook.service;
 
+import com.example.orderbook.api.exceptionhandling.OrderNotAmendableException;
+import com.example.orderbook.api.exceptionhandling.OrderValidationException;
 import com.example.orderbook.api.exceptionhandling.SuspiciousDeviationException;
 import com.example.orderbook.api.exceptionhandling.TickerNotFoundException;
+import com.example.orderbook.api.exceptionhandling.UnsupportedCurrencyException;
+import com.example.orderbook.cluster.ClusterMembership;
+import com.example.orderbook.cluster.ClusterNode;
+import com.example.orderbook.cluster.ClusterProperties;
+import com.example.orderbook.cluster.StaticClusterMembership;
+import com.example.orderbook.cluster.TickerRouter;
+import com.example.orderbook.repository.DailySummaryRepository;
 import com.example.orderbook.repository.OrderRepository;
+import com.example.orderbook.service.aggregate.OrderAggregates;
+import com.example.orderbook.service.book.OrderBooks;
+import com.example.orderbook.service.entity.DailySummaryEntity;
+import com.example.orderbook.service.entity.OrderAmendment;
+import com.example.orderbook.service.entity.OrderBookResponse;
 import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderListResponse;
+import com.example.orderbook.service.entity.OrderSide;
+import com.example.orderbook.service.entity.OrderStatus;
 import com.example.orderbook.service.entity.SummaryResponse;
+import com.example.orderbook.service.fx.FxRateService;
+import com.example.orderbook.service.fx.FxRateTable;
+import com.example.orderbook.service.screening.ScreeningQueue;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,11 +63,38 @@ public class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private DailySummaryRepository dailySummaryRepository;
+
+    @Spy
+    private FxRateService fxRateService = new FxRateService("", "USD");
+
+    @Spy
+    private IdempotencyIndex idempotencyIndex = new IdempotencyIndex(60, 1000);
+
+    @Spy
+    private OrderAggregates orderAggregates = new OrderAggregates();
+
+    @Spy
+    private OrderBooks orderBooks = new OrderBooks(50);
+
+    @Mock
+    private ScreeningQueue screeningQueue;
+
+    @Mock
+    private OrderArchiver orderArchiver;
+
+    // a cluster of one owns every ticker, so the in-memory aggregates and books are used
+    @Spy
+    private TickerRouter tickerRouter = router(true, new StaticClusterMembership(List.of(LOCAL)));
+
     @InjectMocks
     private OrderService orderService;
 
-    private final static String BUY = "BUY";
-    private final static String SELL = "SELL";
+    private final static OrderSide BUY = OrderSide.BUY;
+    private final static OrderSide SELL = OrderSide.SELL;
+    private final static OrderStatus ACTIVE = OrderStatus.ACTIVE;
+    private final static ClusterNode LOCAL = new ClusterNode("local", "http://localhost:8080");
 
     @Test
     @Tag("happy-path")
@@ -87,7 +147,7 @@ public class OrderServiceTest {
                 .currency(order.getCurrency())
                 .build();
 
-        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDate("TSLA", BUY, LocalDate.now())).thenReturn(List.of(order));
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus("TSLA", BUY, LocalDate.now(), ACTIVE)).thenReturn(List.of(order));
         when(orderRepository.save(any(OrderEntity.class))).thenReturn(mockedResponse);
 
         OrderEntity result = orderService.saveNewOrder(order);
@@ -99,6 +159,102 @@ public class OrderServiceTest {
         assertEquals(order.getCurrency(), result.getCurrency());
     }
 
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the daily average is read from the database every time when other instances write to the same database")
+    public void givenReplica_whenSaveNewOrder_thenDailyAverageIsNotKept() {
+        OrderService replica = new OrderService(orderRepository, dailySummaryRepository, fxRateService, idempotencyIndex,
+                orderAggregates, orderBooks, screeningQueue, router(false, false, new StaticClusterMembership(List.of())), orderArchiver);
+        OrderEntity resting = OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(100L).price(100.0).currency("USD").build();
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus("TSLA", BUY, LocalDate.now(), ACTIVE)).thenReturn(List.of(resting));
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        replica.saveNewOrder(OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(10L).price(101.0).currency("USD").build());
+        replica.saveNewOrder(OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(10L).price(102.0).currency("USD").build());
+
+        verify(orderRepository, times(2)).getAllOrdersByTickerAndOrderSideAndDateAndStatus("TSLA", BUY, LocalDate.now(), ACTIVE);
+        verify(orderRepository, never()).getAllOrdersByTickerAndDateAndStatus("TSLA", LocalDate.now(), ACTIVE);
+        assertEquals(0, orderAggregates.size());
+        assertEquals(0, orderBooks.size());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a single instance without cluster mode keeps the daily average in memory")
+    public void givenStandaloneInstance_whenSaveNewOrder_thenDailyAverageIsKept() {
+        OrderService standalone = new OrderService(orderRepository, dailySummaryRepository, fxRateService, idempotencyIndex,
+                orderAggregates, orderBooks, screeningQueue, router(false, true, new StaticClusterMembership(List.of())), orderArchiver);
+        OrderEntity resting = OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(100L).price(100.0).currency("USD").build();
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus("TSLA", BUY, LocalDate.now(), ACTIVE)).thenReturn(List.of(resting));
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        standalone.saveNewOrder(OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(10L).price(101.0).currency("USD").build());
+        standalone.saveNewOrder(OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(10L).price(102.0).currency("USD").build());
+
+        verify(orderRepository, times(1)).getAllOrdersByTickerAndOrderSideAndDateAndStatus("TSLA", BUY, LocalDate.now(), ACTIVE);
+        verify(orderRepository, times(1)).getAllOrdersByTickerAndDateAndStatus("TSLA", LocalDate.now(), ACTIVE);
+        assertEquals(1, orderAggregates.size());
+        assertEquals(1, orderBooks.size());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the first order of a ticker is counted once")
+    public void givenNoOrders_whenSaveNewOrder_thenEmptyAggregateIsKept() {
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.saveNewOrder(OrderEntity.builder().ticker("NEW").orderSide(BUY).volume(10L).price(100.0).currency("USD").build());
+        // the database now has the order, a second load would count it again
+        OrderEntity saved = OrderEntity.builder().ticker("NEW").orderSide(BUY).volume(10L).price(100.0).currency("USD").build();
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(eq("NEW"), any(OrderSide.class), eq(LocalDate.now()), eq(ACTIVE)))
+                .thenAnswer(invocation -> invocation.getArgument(1) == BUY ? List.of(saved) : List.of());
+        SummaryResponse summary = orderService.getSummary("NEW", LocalDate.now());
+
+        assertEquals(1, summary.getBuySummary().getCount());
+        assertEquals(1, orderAggregates.size());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a summary of an unknown ticker does not keep an aggregate")
+    public void givenNoOrders_whenGetSummary_thenEmptyAggregateIsNotKept() {
+        assertThrows(TickerNotFoundException.class, () -> orderService.getSummary("NONE", LocalDate.now()));
+        assertEquals(0, orderAggregates.size());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the kept aggregates and books are dropped when the cluster members change")
+    public void givenMembershipChange_whenOrderServiceIsRunning_thenKeptStateIsCleared() {
+        List<Consumer<List<ClusterNode>>> listeners = new ArrayList<>();
+        ClusterMembership membership = new ClusterMembership() {
+            @Override
+            public List<ClusterNode> members() {
+                return List.of(LOCAL);
+            }
+
+            @Override
+            public void onChange(Consumer<List<ClusterNode>> listener) {
+                listeners.add(listener);
+            }
+        };
+        OrderService clustered = new OrderService(orderRepository, dailySummaryRepository, fxRateService, idempotencyIndex,
+                orderAggregates, orderBooks, screeningQueue, router(true, membership), orderArchiver);
+        OrderEntity resting = OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(100L).price(100.0).currency("USD").build();
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus("TSLA", BUY, LocalDate.now(), ACTIVE)).thenReturn(List.of(resting));
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        when(orderRepository.getAllOrdersByTickerAndDateAndStatus("TSLA", LocalDate.now(), ACTIVE)).thenReturn(List.of(resting));
+
+        clustered.saveNewOrder(OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(10L).price(101.0).currency("USD").build());
+        assertEquals(1, orderAggregates.size());
+        assertEquals(1, orderBooks.size());
+        listeners.forEach(listener -> listener.accept(List.of(LOCAL)));
+
+        assertEquals(0, orderAggregates.size());
+        assertEquals(0, orderBooks.size());
+    }
+
     @Test
     @Tag("happy-path")
     @DisplayName("Verify that getSummary returns correct summary for buy and sell orders")
@@ -111,16 +267,42 @@ public class OrderServiceTest {
                 OrderEntity.builder().currency("SEK").date(date).id(2L).orderSide(SELL).price(50.0).ticker(ticker).volume(70L).build(),
                 OrderEntity.builder().currency("SEK").date(date).id(2L).orderSide(SELL).price(150.0).ticker(ticker).volume(80L).build());
 
-        when(orderRepository.getAllOrdersByTickerAndDate(ticker, date)).thenReturn(orderEntities);
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, BUY, date, ACTIVE)).thenReturn(orderEntities.subList(0, 2));
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, SELL, date, ACTIVE)).thenReturn(orderEntities.subList(2, 4));
+
+        SummaryResponse summary = orderService.getSummary(ticker, date);
+
+        assertEquals(100.0, summary.getBuySummary().getMin());
+        assertEquals(150.0, summary.getBuySummary().getAvg());
+        assertEquals(200.0, summary.getBuySummary().getMax());
+        assertEquals(50.0, summary.getSellSummary().getMin());
+        assertEquals(100.0, summary.getSellSummary().getAvg());
+        assertEquals(150.0, summary.getSellSummary().getMax());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that getSummary for a closed day is answered from the rollup table")
+    public void givenRolledUpDay_whenGetSummary_thenReturnSummaryFromRollup() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now().minusDays(1);
+        List<DailySummaryEntity> dailySummaries = List.of(
+                new DailySummaryEntity(ticker, BUY, date, 2L, 100.0, 200.0, 300.0),
+                new DailySummaryEntity(ticker, SELL, date, 2L, 50.0, 150.0, 200.0));
+
+        when(dailySummaryRepository.getAllByTickerAndDate(ticker, date)).thenReturn(dailySummaries);
 
         SummaryResponse summary = orderService.getSummary(ticker, date);
 
+        assertEquals(2, summary.getBuySummary().getCount());
         assertEquals(100.0, summary.getBuySummary().getMin());
         assertEquals(150.0, summary.getBuySummary().getAvg());
         assertEquals(200.0, summary.getBuySummary().getMax());
+        assertEquals(2, summary.getSellSummary().getCount());
         assertEquals(50.0, summary.getSellSummary().getMin());
         assertEquals(100.0, summary.getSellSummary().getAvg());
         assertEquals(150.0, summary.getSellSummary().getMax());
+        verify(orderRepository, never()).getAllOrdersByTickerAndDateAndStatus(ticker, date, ACTIVE);
     }
 
     @Test
@@ -172,7 +354,8 @@ public class OrderServiceTest {
         String ticker = "INVALID";
         LocalDate date = LocalDate.now();
 
-        when(orderRepository.getAllOrdersByTickerAndDate(ticker, date)).thenReturn(Collections.emptyList());
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, BUY, date, ACTIVE)).thenReturn(Collections.emptyList());
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, SELL, date, ACTIVE)).thenReturn(Collections.emptyList());
 
         TickerNotFoundException exception = assertThrows(TickerNotFoundException.class, () -> {
             orderService.getSummary(ticker, date);
@@ -237,12 +420,461 @@ public class OrderServiceTest {
                 .currency("USD")
                 .build();
 
-        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDate("TSLA", BUY, LocalDate.now())).thenReturn(List.of(orderToCalculateAverage));
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus("TSLA", BUY, LocalDate.now(), ACTIVE)).thenReturn(List.of(orderToCalculateAverage));
 
         SuspiciousDeviationException exception = assertThrows(SuspiciousDeviationException.class, () -> {
             orderService.saveNewOrder(order);
         });
 
         assertEquals("The price deviates more than 10% from the daily average.", exception.getMessage());
+        assertEquals(LocalDate.now(), order.getDate());
+        verify(screeningQueue).offer(order, 10000.0);
+        verify(orderRepository, never()).save(any(OrderEntity.class));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the daily average is converted into the currency of the new order")
+    public void givenOrdersInOtherCurrency_whenSaveNewOrder_thenCompareConvertedAverage() {
+        OrderEntity usdOrder = OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(100L).price(100.0).currency("USD").build();
+        OrderEntity sekOrder = OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(100L).price(1000.0).currency("SEK").build();
+
+        doReturn(FxRateTable.of("USD", Map.of("SEK", 0.1))).when(fxRateService).current();
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus("TSLA", BUY, LocalDate.now(), ACTIVE)).thenReturn(List.of(usdOrder));
+        when(orderRepository.save(any(OrderEntity.class))).thenReturn(sekOrder);
+
+        OrderEntity result = orderService.saveNewOrder(sekOrder);
+
+        assertEquals("SEK", result.getCurrency());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that getSummary converts every price into the reporting currency")
+    public void givenOrdersInTwoCurrencies_whenGetSummaryWithCurrency_thenReturnConvertedSummary() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now();
+        List<OrderEntity> orderEntities = Arrays.asList(
+                OrderEntity.builder().currency("USD").date(date).id(1L).orderSide(BUY).price(100.0).ticker(ticker).volume(100L).build(),
+                OrderEntity.builder().currency("SEK").date(date).id(2L).orderSide(BUY).price(2000.0).ticker(ticker).volume(100L).build(),
+                OrderEntity.builder().currency("SEK").date(date).id(3L).orderSide(SELL).price(500.0).ticker(ticker).volume(70L).build());
+
+        doReturn(FxRateTable.of("USD", Map.of("SEK", 0.1))).when(fxRateService).current();
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, BUY, date, ACTIVE)).thenReturn(orderEntities.subList(0, 2));
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, SELL, date, ACTIVE)).thenReturn(orderEntities.subList(2, 3));
+
+        SummaryResponse summary = orderService.getSummary(ticker, date, "USD");
+
+        assertEquals("USD", summary.getCurrency());
+        assertEquals(100.0, summary.getBuySummary().getMin(), 0.0001);
+        assertEquals(150.0, summary.getBuySummary().getAvg(), 0.0001);
+        assertEquals(200.0, summary.getBuySummary().getMax(), 0.0001);
+        assertEquals(50.0, summary.getSellSummary().getAvg(), 0.0001);
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a converted summary of an archived day is calculated from the orders in the archive")
+    public void givenArchivedDay_whenGetSummaryWithCurrency_thenReturnSummaryFromArchive() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now().minusDays(40);
+        List<OrderEntity> archivedOrders = List.of(
+                OrderEntity.builder().currency("USD").date(date).id(1L).orderSide(BUY).price(100.0).ticker(ticker).volume(100L).status(ACTIVE).build(),
+                OrderEntity.builder().currency("SEK").date(date).id(2L).orderSide(SELL).price(500.0).ticker(ticker).volume(70L).status(ACTIVE).build());
+
+        doReturn(FxRateTable.of("USD", Map.of("SEK", 0.1))).when(fxRateService).current();
+        when(orderRepository.getAllOrdersByTickerAndDateAndStatus(ticker, date, ACTIVE)).thenReturn(List.of());
+        when(orderArchiver.findOrders(ticker, date)).thenReturn(archivedOrders);
+
+        SummaryResponse summary = orderService.getSummary(ticker, date, "USD");
+
+        assertEquals("USD", summary.getCurrency());
+        assertEquals(1, summary.getBuySummary().getCount());
+        assertEquals(100.0, summary.getBuySummary().getAvg(), 0.0001);
+        assertEquals(50.0, summary.getSellSummary().getAvg(), 0.0001);
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that UnsupportedCurrencyException is thrown when a price cannot be converted")
+    public void givenMissingExchangeRate_whenGetSummaryWithCurrency_thenThrowUnsupportedCurrencyException() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now();
+        List<OrderEntity> orderEntities = List.of(
+                OrderEntity.builder().currency("NOK").date(date).id(1L).orderSide(BUY).price(100.0).ticker(ticker).volume(100L).build());
+
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, BUY, date, ACTIVE)).thenReturn(orderEntities);
+
+        assertThrows(UnsupportedCurrencyException.class, () -> orderService.getSummary(ticker, date, "USD"));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a retry with the same idempotency key returns the original order without saving again")
+    public void givenRepeatedIdempotencyKey_whenSaveNewOrder_thenReturnOriginalOrder() {
+        OrderEntity order = OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(100L).price(100.0).currency("USD").build();
+        OrderEntity retry = OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(100L).price(100.0).currency("USD").build();
+        OrderEntity savedOrder = OrderEntity.builder().id(1L).date(LocalDate.now()).ticker("TSLA").orderSide(BUY).volume(100L).price(100.0).currency("USD").build();
+
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus("TSLA", BUY, LocalDate.now(), ACTIVE)).thenReturn(List.of());
+        when(orderRepository.save(order)).thenReturn(savedOrder);
+
+        OrderEntity first = orderService.saveNewOrder(order, "retry-1");
+        OrderEntity second = orderService.saveNewOrder(retry, "retry-1");
+
+        assertSame(savedOrder, first);
+        assertSame(savedOrder, second);
+        assertEquals("retry-1", order.getIdempotencyKey());
+        verify(orderRepository, times(1)).save(any(OrderEntity.class));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a key already stored in the database returns the stored order")
+    public void givenIdempotencyKeyInDatabase_whenSaveNewOrder_thenReturnStoredOrder() {
+        OrderEntity order = OrderEntity.builder().ticker("TSLA").orderSide(BUY).volume(100L).price(100.0).currency("USD").build();
+        OrderEntity storedOrder = OrderEntity.builder().id(5L).date(LocalDate.now()).ticker("TSLA").orderSide(BUY).volume(100L).price(100.0).currency("USD").build();
+
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus("TSLA", BUY, LocalDate.now(), ACTIVE)).thenReturn(List.of());
+        when(orderRepository.save(order)).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        when(orderRepository.findByIdempotencyKey("retry-2")).thenReturn(Optional.of(storedOrder));
+
+        OrderEntity result = orderService.saveNewOrder(order, "retry-2");
+
+        assertSame(storedOrder, result);
+        assertEquals(Optional.of(storedOrder), idempotencyIndex.get("retry-2"));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a cancelled order no longer counts toward the summary of the day")
+    public void givenCancelledOrder_whenGetSummary_thenOrderIsLeftOut() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now();
+        OrderEntity cheapest = OrderEntity.builder().id(1L).currency("SEK").date(date).orderSide(BUY).price(100.0).ticker(ticker).volume(100L).status(ACTIVE).build();
+        OrderEntity other = OrderEntity.builder().id(2L).currency("SEK").date(date).orderSide(BUY).price(200.0).ticker(ticker).volume(100L).status(ACTIVE).build();
+
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, BUY, date, ACTIVE)).thenReturn(List.of(cheapest, other));
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(cheapest));
+        when(orderRepository.cancel(1L, 100.0, 100L)).thenReturn(1);
+
+        OrderEntity cancelled = orderService.cancelOrder(1L);
+        SummaryResponse summary = orderService.getSummary(ticker, date);
+
+        assertEquals(OrderStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(1, summary.getBuySummary().getCount());
+        assertEquals(200.0, summary.getBuySummary().getMin());
+        assertEquals(200.0, summary.getBuySummary().getAvg());
+        assertEquals(200.0, summary.getBuySummary().getMax());
+        verify(orderRepository, times(1)).getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, BUY, date, ACTIVE);
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that an amended price replaces the old price in the summary of the day")
+    public void givenAmendedPrice_whenGetSummary_thenSummaryUsesNewPrice() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now();
+        OrderEntity order = OrderEntity.builder().id(1L).currency("SEK").date(date).orderSide(BUY).price(100.0).ticker(ticker).volume(100L).status(ACTIVE).build();
+        OrderEntity other = OrderEntity.builder().id(2L).currency("SEK").date(date).orderSide(BUY).price(100.0).ticker(ticker).volume(100L).status(ACTIVE).build();
+
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, BUY, date, ACTIVE)).thenReturn(List.of(order, other));
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.amend(1L, 100.0, 100L, 108.0, 50L)).thenReturn(1);
+
+        OrderEntity amended = orderService.amendOrder(1L, OrderAmendment.builder().price(108.0).volume(50L).build());
+        SummaryResponse summary = orderService.getSummary(ticker, date);
+
+        assertEquals(108.0, amended.getPrice());
+        assertEquals(50L, amended.getVolume());
+        assertEquals(2, summary.getBuySummary().getCount());
+        assertEquals(100.0, summary.getBuySummary().getMin());
+        assertEquals(104.0, summary.getBuySummary().getAvg());
+        assertEquals(108.0, summary.getBuySummary().getMax());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that an order from a closed day cannot be cancelled")
+    public void givenOrderFromClosedDay_whenCancelOrder_thenThrowOrderNotAmendableException() {
+        OrderEntity order = OrderEntity.builder().id(1L).currency("SEK").date(LocalDate.now().minusDays(1)).orderSide(BUY).price(100.0).ticker("TSLA").volume(100L).status(ACTIVE).build();
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        OrderNotAmendableException exception = assertThrows(OrderNotAmendableException.class, () -> orderService.cancelOrder(1L));
+
+        assertEquals("Only orders from the current day can be cancelled or amended", exception.getMessage());
+        verify(orderRepository, never()).cancel(anyLong(), anyDouble(), anyLong());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that only the request that cancelled an order removes it from the summary")
+    public void givenConcurrentCancel_whenCancelOrder_thenSummaryIsLeftToTheOtherRequest() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now();
+        OrderEntity order = OrderEntity.builder().id(1L).currency("SEK").date(date).orderSide(BUY).price(100.0).ticker(ticker).volume(100L).status(ACTIVE).build();
+        OrderEntity other = OrderEntity.builder().id(2L).currency("SEK").date(date).orderSide(BUY).price(200.0).ticker(ticker).volume(100L).status(ACTIVE).build();
+        OrderEntity cancelledByOther = OrderEntity.builder().id(1L).currency("SEK").date(date).orderSide(BUY).price(100.0).ticker(ticker).volume(100L).status(OrderStatus.CANCELLED).build();
+
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, BUY, date, ACTIVE)).thenReturn(List.of(order, other));
+        orderService.getSummary(ticker, date);
+        // another request cancels the order between this request reading and updating it, and removes it itself
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order), Optional.of(cancelledByOther));
+        when(orderRepository.cancel(1L, 100.0, 100L)).thenReturn(0);
+
+        OrderEntity cancelled = orderService.cancelOrder(1L);
+        SummaryResponse summary = orderService.getSummary(ticker, date);
+
+        assertEquals(OrderStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(2, summary.getBuySummary().getCount());
+        verify(orderRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that an amendment racing a cancellation does not bring the order back")
+    public void givenConcurrentCancel_whenAmendOrder_thenThrowOrderNotAmendableException() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now();
+        OrderEntity order = OrderEntity.builder().id(1L).currency("SEK").date(date).orderSide(BUY).price(100.0).ticker(ticker).volume(100L).status(ACTIVE).build();
+        OrderEntity cancelledByOther = OrderEntity.builder().id(1L).currency("SEK").date(date).orderSide(BUY).price(100.0).ticker(ticker).volume(100L).status(OrderStatus.CANCELLED).build();
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order), Optional.of(cancelledByOther));
+        when(orderRepository.amend(1L, 100.0, 100L, 100.0, 50L)).thenReturn(0);
+
+        assertThrows(OrderNotAmendableException.class, () -> orderService.amendOrder(1L, OrderAmendment.builder().volume(50L).build()));
+        verify(orderRepository, never()).save(any(OrderEntity.class));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a cancelled order cannot be amended")
+    public void givenCancelledOrder_whenAmendOrder_thenThrowOrderNotAmendableException() {
+        OrderEntity order = OrderEntity.builder().id(1L).currency("SEK").date(LocalDate.now()).orderSide(BUY).price(100.0).ticker("TSLA").volume(100L).status(OrderStatus.CANCELLED).build();
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        assertThrows(OrderNotAmendableException.class, () -> orderService.amendOrder(1L, OrderAmendment.builder().volume(10L).build()));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that an amended price is checked against the daily average")
+    public void givenAmendedPriceWithSuspiciousDeviation_whenAmendOrder_thenThrowSuspiciousDeviationException() {
+        OrderEntity order = OrderEntity.builder().id(1L).currency("SEK").date(LocalDate.now()).orderSide(BUY).price(100.0).ticker("TSLA").volume(100L).status(ACTIVE).build();
+
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus("TSLA", BUY, LocalDate.now(), ACTIVE)).thenReturn(List.of(order));
+
+        assertThrows(SuspiciousDeviationException.class, () -> orderService.amendOrder(1L, OrderAmendment.builder().price(150.0).build()));
+        assertEquals(100.0, order.getPrice());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the order book follows new and cancelled orders without reloading")
+    public void givenNewAndCancelledOrders_whenGetOrderBook_thenBookIsUpToDate() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now();
+        OrderEntity resting = OrderEntity.builder().id(1L).currency("USD").date(date).orderSide(BUY).price(100.0).ticker(ticker).volume(10L).status(ACTIVE).build();
+        OrderEntity newOrder = OrderEntity.builder().ticker(ticker).orderSide(SELL).volume(5L).price(101.0).currency("USD").build();
+
+        when(orderRepository.getAllOrdersByTickerAndDateAndStatus(ticker, date, ACTIVE)).thenReturn(List.of(resting));
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(resting));
+        when(orderRepository.cancel(1L, 100.0, 10L)).thenReturn(1);
+
+        orderService.saveNewOrder(newOrder);
+        OrderBookResponse book = orderService.getOrderBook(ticker, null, 10);
+        orderService.cancelOrder(1L);
+        OrderBookResponse afterCancel = orderService.getOrderBook(ticker, "USD", 10);
+
+        assertEquals("USD", book.getCurrency());
+        assertEquals(100.0, book.getBids().get(0).getPrice());
+        assertEquals(10L, book.getBids().get(0).getVolume());
+        assertEquals(101.0, book.getAsks().get(0).getPrice());
+        assertTrue(afterCancel.getBids().isEmpty());
+        assertEquals(1, afterCancel.getAsks().size());
+        verify(orderRepository, times(1)).getAllOrdersByTickerAndDateAndStatus(ticker, date, ACTIVE);
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that the book of a ticker traded in several currencies needs a currency")
+    public void givenSeveralCurrencies_whenGetOrderBookWithoutCurrency_thenThrowOrderValidationException() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now();
+        when(orderRepository.getAllOrdersByTickerAndDateAndStatus(ticker, date, ACTIVE)).thenReturn(List.of(
+                OrderEntity.builder().currency("USD").date(date).orderSide(BUY).price(100.0).ticker(ticker).volume(10L).build(),
+                OrderEntity.builder().currency("SEK").date(date).orderSide(BUY).price(1000.0).ticker(ticker).volume(10L).build()));
+
+        OrderValidationException exception = assertThrows(OrderValidationException.class, () -> orderService.getOrderBook(ticker, null, 10));
+
+        assertEquals("The ticker is traded in several currencies, specify one of [SEK, USD]", exception.getErrors().get("currency"));
+        assertEquals(1000.0, orderService.getOrderBook(ticker, "SEK", 10).getBids().get(0).getPrice());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that TickerNotFoundException is thrown when the ticker has no active orders today")
+    public void givenNoOrders_whenGetOrderBook_thenThrowTickerNotFoundException() {
+        assertThrows(TickerNotFoundException.class, () -> orderService.getOrderBook("NONE", null, 10));
+        assertEquals(0, orderBooks.size());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a full page of orders is returned as columns with a cursor to the next page")
+    public void givenMoreOrdersThanLimit_whenListOrders_thenReturnPageWithNextCursor() {
+        String ticker = "SAVE";
+        LocalDate from = LocalDate.of(2024, 11, 10);
+        LocalDate to = LocalDate.of(2024, 11, 12);
+        when(orderRepository.findPageByTicker(ticker, from, 0L, to, Limit.of(3))).thenReturn(List.of(
+                OrderEntity.builder().id(4L).date(from).orderSide(BUY).volume(10L).price(100.0).currency("SEK").ticker(ticker).status(ACTIVE).build(),
+                OrderEntity.builder().id(9L).date(from.plusDays(1)).orderSide(SELL).volume(20L).price(101.0).currency("SEK").ticker(ticker).status(OrderStatus.CANCELLED).build(),
+                OrderEntity.builder().id(12L).date(to).orderSide(BUY).volume(30L).price(102.0).currency("SEK").ticker(ticker).status(ACTIVE).build()));
+
+        OrderListResponse page = orderService.listOrders(ticker, from, to, null, 2);
+
+        assertArrayEquals(new long[]{4L, 9L}, page.getIds());
+        assertArrayEquals(new double[]{100.0, 101.0}, page.getPrices());
+        assertArrayEquals(new OrderStatus[]{ACTIVE, OrderStatus.CANCELLED}, page.getStatuses());
+        assertEquals("2024-11-11:9", page.getNextCursor());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that the cursor continues the listing after its order and the last page has no cursor")
+    public void givenCursor_whenListOrders_thenContinueAfterCursor() {
+        String ticker = "SAVE";
+        LocalDate from = LocalDate.of(2024, 11, 10);
+        LocalDate to = LocalDate.of(2024, 11, 12);
+        when(orderRepository.findPageByTicker(ticker, from.plusDays(1), 9L, to, Limit.of(3))).thenReturn(List.of(
+                OrderEntity.builder().id(12L).date(to).orderSide(BUY).volume(30L).price(102.0).currency("SEK").ticker(ticker).status(ACTIVE).build()));
+
+        OrderListResponse page = orderService.listOrders(ticker, from, to, "2024-11-11:9", 2);
+
+        assertArrayEquals(new long[]{12L}, page.getIds());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a malformed cursor or limit is rejected before querying")
+    public void givenInvalidCursorOrLimit_whenListOrders_thenThrowOrderValidationException() {
+        LocalDate date = LocalDate.of(2024, 11, 10);
+
+        OrderValidationException cursor = assertThrows(OrderValidationException.class, () -> orderService.listOrders("SAVE", date, date, "page-2", 10));
+        OrderValidationException limit = assertThrows(OrderValidationException.class, () -> orderService.listOrders("SAVE", date, date, null, OrderService.MAX_LIST_LIMIT + 1));
+
+        assertEquals("The cursor must be the nextCursor of a previous page", cursor.getErrors().get("cursor"));
+        assertEquals("Limit must be between 1 and " + OrderService.MAX_LIST_LIMIT, limit.getErrors().get("limit"));
+        verify(orderRepository, never()).findPageByTicker(any(), any(), anyLong(), any(), any());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a cursor outside the listed dates is rejected instead of listing orders before the first date")
+    public void givenCursorOutsideRange_whenListOrders_thenThrowOrderValidationException() {
+        LocalDate from = LocalDate.of(2024, 11, 10);
+        LocalDate to = LocalDate.of(2024, 11, 12);
+
+        OrderValidationException before = assertThrows(OrderValidationException.class, () -> orderService.listOrders("SAVE", from, to, "2024-11-01:5", 10));
+        OrderValidationException after = assertThrows(OrderValidationException.class, () -> orderService.listOrders("SAVE", from, to, "2024-11-13:5", 10));
+
+        assertEquals("The cursor must be the nextCursor of a previous page", before.getErrors().get("cursor"));
+        assertEquals("The cursor must be the nextCursor of a previous page", after.getErrors().get("cursor"));
+        verify(orderRepository, never()).findPageByTicker(any(), any(), anyLong(), any(), any());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that archived days are listed from the archive and the listing carries on in the database")
+    public void givenArchivedDays_whenListOrders_thenListArchivedOrdersBeforeOrdersInDatabase() {
+        LocalDate from = LocalDate.of(2024, 11, 10);
+        LocalDate to = LocalDate.of(2024, 11, 12);
+        OrderEntity archived = OrderEntity.builder().id(4L).date(from).ticker("SAVE").orderSide(BUY).price(100.0).volume(5L).currency("SEK").status(ACTIVE).build();
+        OrderEntity retained = OrderEntity.builder().id(9L).date(to).ticker("SAVE").orderSide(SELL).price(101.0).volume(5L).currency("SEK").status(ACTIVE).build();
+        when(orderArchiver.findPage("SAVE", from, 0, to, 3)).thenReturn(List.of(archived));
+        when(orderRepository.findPageByTicker("SAVE", from, 4L, to, Limit.of(2))).thenReturn(List.of(retained));
+
+        OrderListResponse response = orderService.listOrders("SAVE", from, to, null, 2);
+
+        assertArrayEquals(new long[]{4L, 9L}, response.getIds());
+        assertNull(response.getNextCursor());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that an order approved in screening on the current day joins the aggregates and the book")
+    public void givenApprovedOrderOfCurrentDay_whenSaveApprovedOrder_thenSummaryAndBookIncludeIt() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now();
+        OrderEntity approved = OrderEntity.builder().currency("USD").date(date).orderSide(BUY).price(150.0).ticker(ticker).volume(10L).build();
+
+        OrderEntity resting = OrderEntity.builder().currency("USD").date(date).orderSide(BUY).price(100.0).ticker(ticker).volume(10L).status(ACTIVE).build();
+
+        when(orderRepository.getAllOrdersByTickerAndOrderSideAndDateAndStatus(ticker, BUY, date, ACTIVE)).thenReturn(List.of(resting));
+        when(orderRepository.getAllOrdersByTickerAndDateAndStatus(ticker, date, ACTIVE)).thenReturn(List.of(resting));
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderService.saveApprovedOrder(approved);
+        SummaryResponse summary = orderService.getSummary(ticker, date);
+
+        assertEquals(ACTIVE, approved.getStatus());
+        assertEquals(2, summary.getBuySummary().getCount());
+        assertEquals(150.0, orderService.getOrderBook(ticker, null, 10).getBids().get(0).getPrice());
+        verify(dailySummaryRepository, never()).save(any(DailySummaryEntity.class));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that an order approved in screening for a rolled up day is added to the day's summary in one statement")
+    public void givenApprovedOrderOfRolledUpDay_whenSaveApprovedOrder_thenSummaryIsUpdated() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now().minusDays(2);
+        OrderEntity approved = OrderEntity.builder().currency("USD").date(date).orderSide(BUY).price(150.0).ticker(ticker).volume(10L).build();
+
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(dailySummaryRepository.findLatestDate()).thenReturn(Optional.of(LocalDate.now().minusDays(1)));
+        when(dailySummaryRepository.addOrder(ticker, BUY, date, 150.0)).thenReturn(1);
+
+        orderService.saveApprovedOrder(approved);
+
+        verify(dailySummaryRepository, never()).insertOrder(any(), any(), any(), anyDouble());
+        verify(dailySummaryRepository, never()).save(any(DailySummaryEntity.class));
+        assertEquals(0, orderAggregates.size());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a summary created concurrently by another approval is added to instead of overwritten")
+    public void givenConcurrentlyCreatedSummary_whenSaveApprovedOrder_thenOrderIsAddedToIt() {
+        String ticker = "TSLA";
+        LocalDate date = LocalDate.now().minusDays(2);
+        OrderEntity approved = OrderEntity.builder().currency("USD").date(date).orderSide(SELL).price(150.0).ticker(ticker).volume(10L).build();
+
+        when(orderRepository.save(any(OrderEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(dailySummaryRepository.findLatestDate()).thenReturn(Optional.of(LocalDate.now().minusDays(1)));
+        when(dailySummaryRepository.addOrder(ticker, SELL, date, 150.0)).thenReturn(0, 1);
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(dailySummaryRepository).insertOrder(ticker, SELL, date, 150.0);
+
+        orderService.saveApprovedOrder(approved);
+
+        verify(dailySummaryRepository, times(2)).addOrder(ticker, SELL, date, 150.0);
+    }
+
+    private static TickerRouter router(boolean enabled, ClusterMembership membership) {
+        return router(enabled, true, membership);
+    }
+
+    private static TickerRouter router(boolean enabled, boolean standalone, ClusterMembership membership) {
+        ClusterProperties clusterProperties = new ClusterProperties();
+        clusterProperties.setEnabled(enabled);
+        clusterProperties.setStandalone(standalone);
+        clusterProperties.setNodeId(LOCAL.id());
+        clusterProperties.setNodes(List.of(LOCAL));
+        return new TickerRouter(clusterProperties, membership);
     }
 }
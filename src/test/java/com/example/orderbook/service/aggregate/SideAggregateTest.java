@@ -0,0 +1,78 @@
+package com.example.orderbook.service.aggregate;
+
+import com.example.orderbook.api.exceptionhandling.UnsupportedCurrencyException;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.fx.FxRateTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SideAggregateTest {
+
+    private static final FxRateTable RATES = FxRateTable.of("USD", Map.of("SEK", 0.1));
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that min and max move to the next price level when the extremes are removed")
+    public void givenRemovedExtremes_whenSummarize_thenMinAndMaxMoveInward() {
+        SideAggregate aggregate = new SideAggregate(List.of(
+                order("SEK", 100.0), order("SEK", 100.0), order("SEK", 150.0), order("SEK", 200.0)));
+
+        aggregate.remove("SEK", 100.0);
+        assertEquals(new PriceSummary(3, 100.0, 150.0, 200.0), aggregate.summarize(RATES, null));
+
+        aggregate.remove("SEK", 100.0);
+        aggregate.remove("SEK", 200.0);
+        assertEquals(new PriceSummary(1, 150.0, 150.0, 150.0), aggregate.summarize(RATES, null));
+
+        aggregate.remove("SEK", 150.0);
+        assertTrue(aggregate.isEmpty());
+        assertEquals(PriceSummary.EMPTY, aggregate.summarize(RATES, null));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that replacing a price only changes the order at that price")
+    public void givenReplacedPrice_whenSummarize_thenNewPriceIsCounted() {
+        SideAggregate aggregate = new SideAggregate(List.of(order("SEK", 100.0), order("SEK", 200.0)));
+
+        aggregate.replace("SEK", 200.0, 120.0);
+        aggregate.replace("SEK", 999.0, 1.0);
+
+        assertEquals(new PriceSummary(2, 100.0, 110.0, 120.0), aggregate.summarize(RATES, null));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that prices in several currencies are converted per currency")
+    public void givenTwoCurrencies_whenSummarizeInReportingCurrency_thenPricesAreConverted() {
+        SideAggregate aggregate = new SideAggregate(List.of(order("USD", 100.0), order("SEK", 2000.0)));
+
+        PriceSummary summary = aggregate.summarize(RATES, "USD");
+
+        assertEquals(2, summary.count());
+        assertEquals(100.0, summary.min(), 0.0001);
+        assertEquals(150.0, summary.avg(), 0.0001);
+        assertEquals(200.0, summary.max(), 0.0001);
+        assertEquals(1500.0, aggregate.average(RATES, "SEK"), 0.0001);
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a currency without an exchange rate is left out of the average and rejected in a summary")
+    public void givenUnknownCurrency_whenAverageAndSummarize_thenAverageSkipsItAndSummaryFails() {
+        SideAggregate aggregate = new SideAggregate(List.of(order("USD", 100.0), order("NOK", 5000.0)));
+
+        assertEquals(100.0, aggregate.average(RATES, "USD"), 0.0001);
+        assertThrows(UnsupportedCurrencyException.class, () -> aggregate.summarize(RATES, "USD"));
+    }
+
+    private static OrderEntity order(String currency, double price) {
+        return OrderEntity.builder().currency(currency).price(price).build();
+    }
+}
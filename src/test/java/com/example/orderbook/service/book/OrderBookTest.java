@@ -0,0 +1,90 @@
+package com.example.orderbook.service.book;
+
+import com.example.orderbook.service.entity.BookLevel;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderBookTest {
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that bids are ordered highest first, asks lowest first and volume is aggregated per price")
+    public void givenOrders_whenSnapshot_thenLevelsAreOrderedAndAggregated() {
+        OrderBook book = new OrderBook(List.of(
+                order(OrderSide.BUY, 100.0, 10),
+                order(OrderSide.BUY, 101.5, 20),
+                order(OrderSide.BUY, 100.0, 5),
+                order(OrderSide.SELL, 103.0, 7),
+                order(OrderSide.SELL, 102.0, 3)), 50);
+
+        BookSnapshot snapshot = book.snapshots().get("SEK");
+
+        assertLevels(snapshot.bids(10), new double[]{101.5, 100.0}, new long[]{20, 15}, new int[]{1, 2});
+        assertLevels(snapshot.asks(10), new double[]{102.0, 103.0}, new long[]{3, 7}, new int[]{1, 1});
+        assertEquals(1, snapshot.bids(1).size());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that removing and replacing orders updates the levels and leaves earlier snapshots untouched")
+    public void givenPublishedSnapshot_whenBookChanges_thenNewSnapshotIsPublished() {
+        OrderBook book = new OrderBook(List.of(order(OrderSide.BUY, 100.0, 10), order(OrderSide.BUY, 100.0, 5)), 50);
+        BookSnapshot before = book.snapshots().get("SEK");
+
+        book.remove(OrderSide.BUY, "SEK", 100.0, 5);
+        book.replace(OrderSide.BUY, "SEK", 100.0, 10, 99.5, 30);
+        book.add(OrderSide.SELL, "SEK", 100.25, 4);
+
+        BookSnapshot after = book.snapshots().get("SEK");
+        assertLevels(before.bids(10), new double[]{100.0}, new long[]{15}, new int[]{2});
+        assertLevels(after.bids(10), new double[]{99.5}, new long[]{30}, new int[]{1});
+        assertLevels(after.asks(10), new double[]{100.25}, new long[]{4}, new int[]{1});
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a currency disappears from the book when its last order is removed")
+    public void givenLastOrderRemoved_whenSnapshots_thenCurrencyIsGone() {
+        OrderBook book = new OrderBook(List.of(order(OrderSide.SELL, 50.0, 1)), 50);
+
+        book.remove(OrderSide.SELL, "SEK", 50.0, 1);
+
+        assertTrue(book.snapshots().isEmpty());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that snapshots only keep the configured number of levels")
+    public void givenMoreLevelsThanMaxDepth_whenSnapshot_thenOnlyBestLevelsAreKept() {
+        OrderBook book = new OrderBook(List.of(), 3);
+        for (int i = 0; i < 100; i++) {
+            book.add(OrderSide.SELL, "SEK", 200.0 - i, 1);
+        }
+
+        List<BookLevel> asks = book.snapshots().get("SEK").asks(10);
+
+        assertEquals(3, asks.size());
+        assertEquals(101.0, asks.get(0).getPrice());
+        assertEquals(103.0, asks.get(2).getPrice());
+    }
+
+    private static OrderEntity order(OrderSide orderSide, double price, long volume) {
+        return OrderEntity.builder().orderSide(orderSide).price(price).volume(volume).currency("SEK").build();
+    }
+
+    private static void assertLevels(List<BookLevel> levels, double[] prices, long[] volumes, int[] orders) {
+        assertEquals(prices.length, levels.size());
+        for (int i = 0; i < prices.length; i++) {
+            assertEquals(prices[i], levels.get(i).getPrice());
+            assertEquals(volumes[i], levels.get(i).getVolume());
+            assertEquals(orders[i], levels.get(i).getOrders());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.orderbook.service.fx;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FxRateServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that rates loaded from file convert between any two known currencies")
+    public void givenRatesFile_whenConvert_thenUseRatesAgainstBase() throws IOException {
+        Path file = directory.resolve("rates.txt");
+        Files.writeString(file, "# units of USD per unit\nSEK=0.1\nEUR = 1.25\n");
+
+        FxRateTable rates = new FxRateService(file.toString(), "USD").current();
+
+        assertEquals(10.0, rates.convert(100.0, "SEK", "USD"), 0.0001);
+        assertEquals(80.0, rates.convert(100.0, "USD", "EUR"), 0.0001);
+        assertEquals(8.0, rates.convert(100.0, "SEK", "EUR"), 0.0001);
+        assertEquals(8.0, rates.convert(100.0, "sek", "eur"), 0.0001);
+        assertTrue(rates.canConvert("SEK", "EUR"));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that unknown currencies can only be converted into themselves")
+    public void givenUnknownCurrency_whenConvert_thenReturnNaN() {
+        FxRateTable rates = new FxRateService("", "USD").current();
+
+        assertTrue(rates.canConvert("NOK", "NOK"));
+        assertEquals(42.0, rates.convert(42.0, "NOK", "NOK"));
+        assertFalse(rates.canConvert("NOK", "USD"));
+        assertTrue(Double.isNaN(rates.convert(42.0, "NOK", "USD")));
+        assertFalse(rates.canConvert("TOOLONG", "USD"));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a broken rates file keeps the previous snapshot")
+    public void givenBrokenRatesFile_whenRefresh_thenKeepPreviousRates() throws IOException {
+        Path file = directory.resolve("rates.txt");
+        Files.writeString(file, "SEK=0.1\n");
+        FxRateService fxRateService = new FxRateService(file.toString(), "USD");
+        FxRateTable before = fxRateService.current();
+
+        Files.writeString(file, "SEK=abc\n");
+        fxRateService.refresh();
+
+        assertSame(before, fxRateService.current());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.orderbook.service.screening;
+
+import com.example.orderbook.repository.ScreeningRepository;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import com.example.orderbook.service.entity.ScreeningEntity;
+import com.example.orderbook.service.entity.ScreeningStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class ScreeningQueueTest {
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    private final OrderEntity order = OrderEntity.builder()
+            .date(LocalDate.now())
+            .ticker("SAVE")
+            .orderSide(OrderSide.BUY)
+            .volume(100L)
+            .price(300.0)
+            .currency("SEK")
+            .build();
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that queued orders are stored as pending in batches by the workers, at the latest on shutdown")
+    public void givenQueuedOrders_whenStop_thenEveryOrderIsStored() throws InterruptedException {
+        // the queue reuses its batch list, so every call is recorded as a copy
+        List<List<ScreeningEntity>> batches = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> batches.add(List.copyOf(invocation.getArgument(0)))).when(screeningRepository).insertAll(anyList());
+        ScreeningQueue screeningQueue = new ScreeningQueue(screeningRepository, 100, 10, 2, Duration.ofMillis(10));
+
+        screeningQueue.start();
+        for (int i = 0; i < 25; i++) {
+            assertTrue(screeningQueue.offer(order, 235.0));
+        }
+        screeningQueue.stop();
+
+        List<ScreeningEntity> stored = batches.stream().flatMap(List::stream).toList();
+        assertTrue(batches.size() >= 3);
+        assertTrue(batches.stream().allMatch(batch -> !batch.isEmpty() && batch.size() <= 10));
+        assertEquals(25, stored.size());
+        assertEquals(ScreeningStatus.PENDING, stored.get(0).getStatus());
+        assertEquals(235.0, stored.get(0).getDailyAverage());
+        assertEquals(0, screeningQueue.size());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that a rejected order keeps its idempotency key, so a retried rejection is stored once")
+    public void givenOrderWithIdempotencyKey_whenStop_thenKeyIsStored() throws InterruptedException {
+        List<ScreeningEntity> stored = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> stored.addAll(invocation.getArgument(0))).when(screeningRepository).insertAll(anyList());
+        ScreeningQueue screeningQueue = new ScreeningQueue(screeningRepository, 100, 10, 1, Duration.ofMillis(10));
+        OrderEntity keyed = OrderEntity.builder()
+                .date(order.getDate())
+                .ticker("SAVE")
+                .orderSide(OrderSide.BUY)
+                .volume(100L)
+                .price(300.0)
+                .currency("SEK")
+                .idempotencyKey("retry-1")
+                .build();
+
+        screeningQueue.start();
+        assertTrue(screeningQueue.offer(keyed, 235.0));
+        screeningQueue.stop();
+
+        assertEquals("retry-1", stored.get(0).getIdempotencyKey());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a batch that could not be stored is retried instead of lost")
+    public void givenFailingInsert_whenWorkerRetries_thenOrdersAreStored() throws InterruptedException {
+        List<List<ScreeningEntity>> batches = new CopyOnWriteArrayList<>();
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .doAnswer(invocation -> batches.add(List.copyOf(invocation.getArgument(0))))
+                .when(screeningRepository).insertAll(anyList());
+        ScreeningQueue screeningQueue = new ScreeningQueue(screeningRepository, 100, 10, 1, Duration.ofMillis(10));
+
+        screeningQueue.start();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(screeningQueue.offer(order, 235.0));
+        }
+        // the retry has to come from the worker, a failure while flushing on shutdown is not retried
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (batches.stream().mapToInt(List::size).sum() < 5 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        screeningQueue.stop();
+
+        assertEquals(5, batches.stream().mapToInt(List::size).sum());
+        assertEquals(0, screeningQueue.dropped());
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that offering to a full queue drops the order instead of blocking")
+    public void givenFullQueue_whenOffer_thenOrderIsDropped() {
+        ScreeningQueue screeningQueue = new ScreeningQueue(screeningRepository, 1, 10, 1, Duration.ofMillis(10));
+
+        assertTrue(screeningQueue.offer(order, 235.0));
+        assertFalse(screeningQueue.offer(order, 235.0));
+
+        assertEquals(1, screeningQueue.size());
+        assertEquals(1, screeningQueue.dropped());
+        verifyNoInteractions(screeningRepository);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.orderbook.service.screening;
+
+import com.example.orderbook.api.exceptionhandling.OrderValidationException;
+import com.example.orderbook.repository.ScreeningRepository;
+import com.example.orderbook.service.DayLocks;
+import com.example.orderbook.service.OrderService;
+import com.example.orderbook.service.entity.DayLockEntity;
+import com.example.orderbook.service.entity.OrderEntity;
+import com.example.orderbook.service.entity.OrderSide;
+import com.example.orderbook.service.entity.ScreeningEntity;
+import com.example.orderbook.service.entity.ScreeningStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ScreeningServiceTest {
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private DayLocks dayLocks;
+
+    @InjectMocks
+    private ScreeningService screeningService;
+
+    private final LocalDate date = LocalDate.now();
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that approving saves an order for every pending id and skips orders that were already decided")
+    public void givenPendingAndDecidedOrders_whenApprove_thenOnlyPendingOrdersAreSaved() {
+        ScreeningEntity pending = screening(1L, ScreeningStatus.PENDING);
+        ScreeningEntity rejected = screening(2L, ScreeningStatus.REJECTED);
+        ScreeningEntity decidedConcurrently = screening(3L, ScreeningStatus.PENDING);
+
+        when(screeningRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(pending, rejected, decidedConcurrently));
+        when(screeningRepository.claim(1L, ScreeningStatus.APPROVED)).thenReturn(1);
+        when(screeningRepository.claim(3L, ScreeningStatus.APPROVED)).thenReturn(0);
+        when(orderService.saveApprovedOrder(any(OrderEntity.class))).thenReturn(OrderEntity.builder().id(42L).date(date).build());
+        when(screeningRepository.save(pending)).thenReturn(pending);
+
+        List<ScreeningEntity> approved = screeningService.approve(List.of(1L, 2L, 3L));
+
+        assertEquals(List.of(pending), approved);
+        assertEquals(ScreeningStatus.APPROVED, pending.getStatus());
+        assertEquals(42L, pending.getOrderId());
+        verify(orderService, times(1)).saveApprovedOrder(any(OrderEntity.class));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that an order of an archived day stays pending")
+    public void givenOrderOfArchivedDay_whenApprove_thenOrderStaysPending() {
+        LocalDate archivedDate = date.minusDays(40);
+        ScreeningEntity pending = screening(1L, ScreeningStatus.PENDING);
+        pending.setDate(archivedDate);
+
+        when(screeningRepository.findAllById(List.of(1L))).thenReturn(List.of(pending));
+        when(screeningRepository.claim(1L, ScreeningStatus.APPROVED)).thenReturn(1);
+        whenDayLocked(archivedDate, true);
+
+        assertTrue(screeningService.approve(List.of(1L)).isEmpty());
+        assertEquals(ScreeningStatus.PENDING, pending.getStatus());
+        verify(screeningRepository).save(pending);
+        verify(orderService, never()).saveApprovedOrder(any(OrderEntity.class));
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that an order of a past day is saved while the day is locked against the rollup and the archiver")
+    public void givenOrderOfPastDay_whenApprove_thenOrderIsSavedUnderDayLock() {
+        LocalDate pastDate = date.minusDays(1);
+        ScreeningEntity pending = screening(1L, ScreeningStatus.PENDING);
+        pending.setDate(pastDate);
+
+        when(screeningRepository.findAllById(List.of(1L))).thenReturn(List.of(pending));
+        when(screeningRepository.claim(1L, ScreeningStatus.APPROVED)).thenReturn(1);
+        whenDayLocked(pastDate, false);
+        when(orderService.saveApprovedOrder(any(OrderEntity.class))).thenReturn(OrderEntity.builder().id(42L).date(pastDate).build());
+        when(screeningRepository.save(pending)).thenReturn(pending);
+
+        assertEquals(List.of(pending), screeningService.approve(List.of(1L)));
+        assertEquals(42L, pending.getOrderId());
+        verify(dayLocks).execute(eq(pastDate), any());
+    }
+
+    @Test
+    @Tag("happy-path")
+    @DisplayName("Verify that rejecting marks pending orders as rejected without saving orders")
+    public void givenPendingOrder_whenReject_thenOrderIsRejected() {
+        ScreeningEntity pending = screening(1L, ScreeningStatus.PENDING);
+
+        when(screeningRepository.findAllById(List.of(1L))).thenReturn(List.of(pending));
+        when(screeningRepository.claim(1L, ScreeningStatus.REJECTED)).thenReturn(1);
+
+        assertEquals(List.of(pending), screeningService.reject(List.of(1L)));
+        assertEquals(ScreeningStatus.REJECTED, pending.getStatus());
+        verify(orderService, never()).saveApprovedOrder(any(OrderEntity.class));
+    }
+
+    @Test
+    @Tag("error-path")
+    @DisplayName("Verify that a decision without ids is rejected")
+    public void givenNoIds_whenApprove_thenThrowOrderValidationException() {
+        OrderValidationException exception = assertThrows(OrderValidationException.class, () -> screeningService.approve(List.of()));
+
+        assertEquals("Between 1 and " + ScreeningService.MAX_BATCH + " ids must be given", exception.getErrors().get("ids"));
+    }
+
+    private void whenDayLocked(LocalDate lockedDate, boolean archived) {
+        when(dayLocks.execute(eq(lockedDate), any())).thenAnswer(invocation ->
+                invocation.<Function<DayLockEntity, ?>>getArgument(1).apply(new DayLockEntity(lockedDate, archived)));
+    }
+
+    private ScreeningEntity screening(Long id, ScreeningStatus status) {
+        return ScreeningEntity.builder()
+                .id(id)
+                .date(date)
+                .ticker("SAVE")
+                .orderSide(OrderSide.BUY)
+                .volume(100L)
+                .price(300.0)
+                .currency("SEK")
+                .dailyAverage(235.0)
+                .status(status)
+                .build();
+    }
+}